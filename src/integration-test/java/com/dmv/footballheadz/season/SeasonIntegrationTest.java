@@ -36,7 +36,7 @@ public class SeasonIntegrationTest {
         Season season = new Season().withId(randomUUID().toString());
         ResponseEntity<Season> result = restTemplate.postForEntity(url("/v1/season"), season, Season.class);
         assertThat(result.getStatusCode(), CoreMatchers.is(HttpStatus.CREATED));
-        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(season)));
+        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(season.withVersion(1L))));
     }
 
     @Test
@@ -63,7 +63,7 @@ public class SeasonIntegrationTest {
         restTemplate.postForEntity(url("/v1/season"), season2, Season.class);
         ResponseEntity<Season[]> result = restTemplate.getForEntity(url("/v1/season"), Season[].class);
         assertThat(result.getStatusCode(), CoreMatchers.is(HttpStatus.OK));
-        assertThat(Arrays.asList(result.getBody()), CoreMatchers.hasItems(season1, season2));
+        assertThat(Arrays.asList(result.getBody()), CoreMatchers.hasItems(season1.withVersion(1L), season2.withVersion(1L)));
     }
 
     @Test
@@ -80,7 +80,7 @@ public class SeasonIntegrationTest {
         restTemplate.postForEntity(url("/v1/season"), season, Season.class);
         ResponseEntity<Season> result = restTemplate.getForEntity(url("/v1/season/" + seasonId), Season.class);
         assertThat(result.getStatusCode(), CoreMatchers.is(HttpStatus.OK));
-        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(season)));
+        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(season.withVersion(1L))));
     }
 
     @Test
@@ -101,7 +101,17 @@ public class SeasonIntegrationTest {
         RequestEntity<Season> request = new RequestEntity<>(newSeasonData, HttpMethod.PUT, url("/v1/season/" + seasonName));
         ResponseEntity<Season> result = restTemplate.exchange(request, Season.class);
         assertThat(result.getStatusCode(), CoreMatchers.is(HttpStatus.OK));
-        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(newSeasonData)));
+        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(newSeasonData.withVersion(2L))));
+    }
+
+    @Test
+    public void putShouldReplyWithPreconditionFailedForStaleVersion() throws Exception {
+        String seasonName = randomUUID().toString();
+        restTemplate.postForEntity(url("/v1/season"), new Season().withId(seasonName).withRank("10"), Season.class);
+        restTemplate.exchange(new RequestEntity<>(new Season().withRank("9"), HttpMethod.PUT, url("/v1/season/" + seasonName)), Season.class);
+        RequestEntity<Season> request = new RequestEntity<>(new Season().withRank("8").withVersion(1L), HttpMethod.PUT, url("/v1/season/" + seasonName));
+        ResponseEntity<Season> result = restTemplate.exchange(request, Season.class);
+        assertThat(result.getStatusCode(), CoreMatchers.is(HttpStatus.PRECONDITION_FAILED));
     }
 
     @Test
@@ -123,7 +133,7 @@ public class SeasonIntegrationTest {
         RequestEntity<Season> request = new RequestEntity<>(newSeasonData, HttpMethod.PATCH, url("/v1/season/" + seasonName));
         ResponseEntity<Season> result = restTemplate.exchange(request, Season.class);
         assertThat(result.getStatusCode(), CoreMatchers.is(HttpStatus.OK));
-        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(expectedNewSeasonData)));
+        assertThat(result.getBody(), CoreMatchers.is(CoreMatchers.equalTo(expectedNewSeasonData.withVersion(2L))));
     }
 
     @Test
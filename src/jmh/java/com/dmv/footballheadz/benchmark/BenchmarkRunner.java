@@ -0,0 +1,30 @@
+package com.dmv.footballheadz.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs every benchmark of this package and writes the results as JSON, by default to
+ * {@code build/reports/jmh/results.json}, so runs can be compared between builds.
+ * An optional second argument narrows the run to benchmarks matching a regular expression.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        File results = new File(args.length > 0 ? args[0] : "build/reports/jmh/results.json");
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackage().getName() + ".*";
+        if (results.getParentFile() != null) {
+            results.getParentFile().mkdirs();
+        }
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.getPath())
+                .build();
+        new Runner(options).run();
+    }
+}
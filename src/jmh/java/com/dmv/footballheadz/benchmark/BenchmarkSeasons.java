@@ -0,0 +1,41 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.dmv.footballheadz.season.impl.Season;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seasons shaped like the ones the API serves, a full league per year.
+ */
+final class BenchmarkSeasons {
+
+    static final int LIST_SIZE = 100;
+
+    private BenchmarkSeasons() {
+    }
+
+    static Season season(int i) {
+        String year = Integer.toString(2000 + i / 12);
+        String teamName = "Team" + (i % 12);
+        return new Season()
+                .withId(year + "|" + teamName)
+                .withYear(year)
+                .withTeamName(teamName)
+                .withRank(Integer.toString(i % 12 + 1))
+                .withPlayoffRank(Integer.toString(i % 12 + 1))
+                .withRecord("9-4-0")
+                .withPct(0.692)
+                .withStreak("W3")
+                .withPointsFor(1523.40)
+                .withPointAgainst(1398.12);
+    }
+
+    static List<Season> seasons() {
+        List<Season> seasons = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            seasons.add(season(i));
+        }
+        return seasons;
+    }
+}
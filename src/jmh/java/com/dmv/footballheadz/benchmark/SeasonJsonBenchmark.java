@@ -0,0 +1,70 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.dmv.footballheadz.season.impl.Season;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson costs of the season endpoints: one season for item reads and writes, a page of
+ * {@link BenchmarkSeasons#LIST_SIZE} seasons for listings and batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeasonJsonBenchmark {
+
+    private ObjectWriter seasonWriter;
+    private ObjectReader seasonReader;
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+
+    private Season season;
+    private List<Season> seasons;
+    private byte[] seasonJson;
+    private byte[] seasonsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        TypeReference<List<Season>> listType = new TypeReference<List<Season>>() {
+        };
+        seasonWriter = objectMapper.writerFor(Season.class);
+        seasonReader = objectMapper.readerFor(Season.class);
+        listWriter = objectMapper.writerFor(listType);
+        listReader = objectMapper.readerFor(listType);
+        season = BenchmarkSeasons.season(0);
+        seasons = BenchmarkSeasons.seasons();
+        seasonJson = seasonWriter.writeValueAsBytes(season);
+        seasonsJson = listWriter.writeValueAsBytes(seasons);
+    }
+
+    @Benchmark
+    public byte[] serializeSeason() throws IOException {
+        return seasonWriter.writeValueAsBytes(season);
+    }
+
+    @Benchmark
+    public Season deserializeSeason() throws IOException {
+        return seasonReader.readValue(seasonJson);
+    }
+
+    @Benchmark
+    public byte[] serializeSeasonList() throws IOException {
+        return listWriter.writeValueAsBytes(seasons);
+    }
+
+    @Benchmark
+    public List<Season> deserializeSeasonList() throws IOException {
+        return listReader.readValue(seasonsJson);
+    }
+}
@@ -0,0 +1,49 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.dmv.footballheadz.season.impl.Season;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DynamoDBMapper marshalling of a season to and from its item, the work the mapper does for
+ * every item it writes or reads. The mapper is never connected, the client only satisfies it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeasonMarshallingBenchmark {
+
+    private DynamoDBMapperTableModel<Season> model;
+
+    private Season season;
+
+    private Map<String, AttributeValue> item;
+
+    @Setup
+    public void setUp() {
+        DynamoDBMapper dbMapper = new DynamoDBMapper(new AbstractAmazonDynamoDB() {
+        });
+        model = dbMapper.getTableModel(Season.class);
+        season = BenchmarkSeasons.season(0);
+        item = model.convert(season);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> convert() {
+        return model.convert(season);
+    }
+
+    @Benchmark
+    public Season unconvert() {
+        return model.unconvert(item);
+    }
+}
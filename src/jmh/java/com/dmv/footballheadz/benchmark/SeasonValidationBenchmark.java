@@ -0,0 +1,56 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.dmv.footballheadz.season.impl.Season;
+import com.dmv.footballheadz.season.impl.SeasonValidation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation run on every write, with valid input and with the rejections seen most often.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeasonValidationBenchmark {
+
+    private final SeasonValidation seasonValidation = new SeasonValidation();
+
+    private Season validSeason;
+
+    private Season mismatchedIdSeason;
+
+    @Setup
+    public void setUp() {
+        validSeason = BenchmarkSeasons.season(0);
+        mismatchedIdSeason = BenchmarkSeasons.season(0).withId("2000|SomeoneElse");
+    }
+
+    @Benchmark
+    public boolean isValidId() {
+        return seasonValidation.isValidId(validSeason);
+    }
+
+    @Benchmark
+    public boolean isValidIdMismatch() {
+        return seasonValidation.isValidId(mismatchedIdSeason);
+    }
+
+    @Benchmark
+    public boolean isValidRank() {
+        return seasonValidation.isValidRank("7");
+    }
+
+    @Benchmark
+    public boolean isValidRankOutOfRange() {
+        return seasonValidation.isValidRank("13");
+    }
+
+    @Benchmark
+    public boolean isValidRankNotNumeric() {
+        return seasonValidation.isValidRank("first");
+    }
+}
@@ -0,0 +1,66 @@
+package com.dmv.footballheadz.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of the operations a load test sends, written as {@code GET=60,POST=10,PATCH=20,LIST=10}.
+ * Weights are relative and need not add up to 100; operations left out are not sent.
+ */
+class LoadMix {
+
+    enum Operation {
+        GET, POST, PATCH, LIST
+    }
+
+    private final Map<Operation, Integer> weights;
+
+    private final int total;
+
+    private LoadMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.total = weights.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    static LoadMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries must be OPERATION=weight: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + mix);
+        }
+        return new LoadMix(weights);
+    }
+
+    Operation next(Random random) {
+        int pick = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    Iterable<Operation> operations() {
+        return weights.keySet();
+    }
+
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}
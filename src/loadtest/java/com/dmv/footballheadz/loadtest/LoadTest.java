@@ -0,0 +1,273 @@
+package com.dmv.footballheadz.loadtest;
+
+import com.dmv.footballheadz.Application;
+import com.dmv.footballheadz.loadtest.LoadMix.Operation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the service with a fixed arrival rate of mixed requests and writes HdrHistogram
+ * percentile distributions per operation. Requests are scheduled on an open model: request n is
+ * due at {@code start + n / rate} whether or not earlier requests have completed, and its response
+ * time is measured from when it was due, so a stalled server shows up as latency instead of as
+ * fewer requests (coordinated omission). The time from actually sending is reported next to it as
+ * service time.
+ * <p>
+ * The service runs in-process on a random port. Without {@code loadtest.endpoint} it is backed by
+ * an in-memory DynamoDB Local started in the same JVM, see {@link LocalDynamoDb}, or with
+ * {@code loadtest.backend=in-memory} by the in-memory repository, which takes DynamoDB out of the
+ * measurement altogether. Settings are system properties:
+ * <ul>
+ * <li>{@code loadtest.rate} requests per second, default 200</li>
+ * <li>{@code loadtest.duration} measured seconds, default 60</li>
+ * <li>{@code loadtest.warmup} seconds sent before measuring, default 10</li>
+ * <li>{@code loadtest.mix} operation weights, default {@code GET=60,POST=10,PATCH=20,LIST=10}</li>
+ * <li>{@code loadtest.seasons} seasons created before the run for GET and PATCH, default 1000</li>
+ * <li>{@code loadtest.backend} {@code dynamodb} or {@code in-memory}, default {@code dynamodb}</li>
+ * <li>{@code loadtest.endpoint} DynamoDB endpoint to use instead of DynamoDB Local</li>
+ * <li>{@code loadtest.output} report directory, default {@code build/reports/loadtest}</li>
+ * </ul>
+ * Any other system property is passed on to the service, e.g. {@code -Dseason.cache.enabled=false}.
+ */
+public class LoadTest {
+
+    private static final String DEFAULT_MIX = "GET=60,POST=10,PATCH=20,LIST=10";
+
+    private static final String SEED_YEAR = "2019";
+
+    private static final int LIST_PAGE_SIZE = 25;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final double rate;
+
+    private final LoadMix mix;
+
+    private final int seasons;
+
+    private final HttpClient client;
+
+    private final String baseUrl;
+
+    private final AtomicLong created = new AtomicLong();
+
+    private LoadTest(double rate, LoadMix mix, int seasons, HttpClient client, String baseUrl) {
+        this.rate = rate;
+        this.mix = mix;
+        this.seasons = seasons;
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+        int duration = Integer.getInteger("loadtest.duration", 60);
+        int warmup = Integer.getInteger("loadtest.warmup", 10);
+        LoadMix mix = LoadMix.parse(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        int seasons = Integer.getInteger("loadtest.seasons", 1000);
+        boolean inMemory = "in-memory".equals(System.getProperty("loadtest.backend", "dynamodb"));
+        String endpoint = System.getProperty("loadtest.endpoint", "");
+        Path output = Paths.get(System.getProperty("loadtest.output", "build/reports/loadtest"));
+
+        LocalDynamoDb localDynamoDb = !inMemory && endpoint.isEmpty() ? LocalDynamoDb.start() : null;
+        System.setProperty("server.port", "0");
+        if (inMemory) {
+            System.setProperty("spring.profiles.active", "in-memory");
+        } else {
+            System.setProperty("amazon.dynamodb.endpoint", localDynamoDb != null ? localDynamoDb.endpoint() : endpoint);
+        }
+        // the table is created with 1 read unit, scan pacing would throttle LIST to a crawl
+        defaultProperty("season.scan.rate-limit.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(args);
+             ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(httpExecutor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            LoadTest loadTest = new LoadTest(rate, mix, seasons, client,
+                    "http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            loadTest.seed();
+            System.out.printf("Sending %s at %.0f requests/s, %d s warm up, %d s measured%n",
+                    mix, rate, warmup, duration);
+            loadTest.run(warmup);
+            Map<Operation, Stats> stats = loadTest.run(duration);
+            report(stats, duration, output);
+        } finally {
+            if (localDynamoDb != null) {
+                localDynamoDb.close();
+            }
+        }
+    }
+
+    private static void defaultProperty(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private void seed() throws Exception {
+        for (int i = 0; i < seasons; i++) {
+            HttpResponse<Void> response = client.send(post(SEED_YEAR, "Seed-" + i), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 201 && response.statusCode() != 409) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode());
+            }
+        }
+    }
+
+    /**
+     * Sends requests at the fixed rate for the given number of seconds and waits for the
+     * stragglers, which still count towards the run they were sent in.
+     */
+    private Map<Operation, Stats> run(int seconds) {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        mix.operations().forEach(operation -> stats.put(operation, new Stats()));
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long requests = (long) (rate * seconds);
+        Random random = new Random();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (long n = 0; n < requests; n++) {
+                long due = start + n * intervalNanos;
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = mix.next(random);
+                HttpRequest request = request(operation);
+                executor.execute(() -> send(request, due, stats.get(operation)));
+            }
+        }
+        return stats;
+    }
+
+    private void send(HttpRequest request, long due, Stats stats) {
+        long sent = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                stats.errors.increment();
+            }
+        } catch (IOException e) {
+            stats.errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.errors.increment();
+        }
+        long end = System.nanoTime();
+        stats.responseTime.recordValue(end - due);
+        stats.serviceTime.recordValue(end - sent);
+    }
+
+    private HttpRequest request(Operation operation) {
+        switch (operation) {
+            case GET:
+                return HttpRequest.newBuilder(seasonUri(seededId()))
+                        .timeout(REQUEST_TIMEOUT)
+                        .build();
+            case POST:
+                return post(String.valueOf(2000 + ThreadLocalRandom.current().nextInt(20)),
+                        "Load-" + created.incrementAndGet());
+            case PATCH:
+                return HttpRequest.newBuilder(seasonUri(seededId()))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"streak\":\"W" + (1 + ThreadLocalRandom.current().nextInt(9)) + "\"}"))
+                        .build();
+            case LIST:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/v1/season?limit=" + LIST_PAGE_SIZE))
+                        .timeout(REQUEST_TIMEOUT)
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private HttpRequest post(String year, String teamName) {
+        String rank = String.valueOf(1 + ThreadLocalRandom.current().nextInt(12));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/v1/season"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"id\":\"" + year + "|" + teamName + "\",\"year\":\"" + year
+                                + "\",\"rank\":\"" + rank + "\",\"teamName\":\"" + teamName + "\"}"))
+                .build();
+    }
+
+    private String seededId() {
+        return SEED_YEAR + "|Seed-" + ThreadLocalRandom.current().nextInt(seasons);
+    }
+
+    private URI seasonUri(String id) {
+        return URI.create(baseUrl + "/v1/season/" + URLEncoder.encode(id, StandardCharsets.UTF_8));
+    }
+
+    private static void report(Map<Operation, Stats> stats, int seconds, Path output) throws IOException {
+        Files.createDirectories(output);
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-6s %9s %10s %7s %10s %10s %10s %10s %12s",
+                "op", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms"));
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            String name = entry.getKey().name().toLowerCase();
+            Histogram responseTime = entry.getValue().responseTime.getIntervalHistogram();
+            Histogram serviceTime = entry.getValue().serviceTime.getIntervalHistogram();
+            writeDistribution(responseTime, output.resolve(name + ".hgrm"));
+            writeDistribution(serviceTime, output.resolve(name + "-service.hgrm"));
+            lines.add(String.format("%-6s %9d %10.1f %7d %10.2f %10.2f %10.2f %10.2f %12.2f",
+                    name, responseTime.getTotalCount(), (double) responseTime.getTotalCount() / seconds,
+                    entry.getValue().errors.sum(),
+                    millis(responseTime.getValueAtPercentile(50)),
+                    millis(responseTime.getValueAtPercentile(99)),
+                    millis(responseTime.getValueAtPercentile(99.9)),
+                    millis(responseTime.getMaxValue()),
+                    millis(serviceTime.getValueAtPercentile(99))));
+        }
+        Files.write(output.resolve("summary.txt"), lines, StandardCharsets.UTF_8);
+        lines.forEach(System.out::println);
+        System.out.println("Reports written to " + output.toAbsolutePath());
+    }
+
+    private static void writeDistribution(Histogram histogram, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, 1_000_000.0);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Stats {
+
+        final Recorder responseTime = new Recorder(3);
+        final Recorder serviceTime = new Recorder(3);
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,53 @@
+package com.dmv.footballheadz.loadtest;
+
+import com.amazonaws.services.dynamodbv2.local.main.ServerRunner;
+import com.amazonaws.services.dynamodbv2.local.server.DynamoDBProxyServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * DynamoDB Local running inside the load test JVM with an in-memory database, so a run needs
+ * neither AWS nor a separate container. DynamoDB Local loads SQLite through sqlite4java; point
+ * {@code sqlite4java.library.path} at the directory holding the native library for this platform.
+ * DynamoDB Local accepts any credentials, so dummy ones are set for the SDK's default chain unless
+ * the environment already provides some.
+ */
+class LocalDynamoDb implements AutoCloseable {
+
+    private final DynamoDBProxyServer server;
+
+    private final int port;
+
+    private LocalDynamoDb(DynamoDBProxyServer server, int port) {
+        this.server = server;
+        this.port = port;
+    }
+
+    static LocalDynamoDb start() throws Exception {
+        if (System.getenv("AWS_ACCESS_KEY_ID") == null && System.getProperty("aws.accessKeyId") == null) {
+            System.setProperty("aws.accessKeyId", "local");
+            System.setProperty("aws.secretKey", "local");
+        }
+        int port = freePort();
+        DynamoDBProxyServer server = ServerRunner.createServerFromCommandLineArgs(
+                new String[]{"-inMemory", "-disableTelemetry", "-port", String.valueOf(port)});
+        server.start();
+        return new LocalDynamoDb(server, port);
+    }
+
+    String endpoint() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.dmv.footballheadz.loadtest;
+
+import com.dmv.footballheadz.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares platform and virtual request threads under a closed-loop load of concurrent clients.
+ * Each mode boots its own instance of the service on a random port with the season cache turned
+ * off, so every request blocks on a DynamoDB read, and reports throughput and latency percentiles.
+ * <p>
+ * Without {@code amazon.dynamodb.endpoint} both instances share an in-memory DynamoDB Local started
+ * in the same JVM, see {@link LocalDynamoDb}. Pointing it at a DynamoDB Local running on its own
+ * keeps the database's CPU out of the measurement; pass credentials for the SDK's default chain
+ * then, any will do. Run with {@code [clients] [warmupSeconds] [seconds]}, by default 1000
+ * clients, 10 s warm up and 30 s.
+ */
+public class ThreadModelBenchmark {
+
+    private static final int SEEDED_SEASONS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int warmupSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        LocalDynamoDb localDynamoDb = System.getProperty("amazon.dynamodb.endpoint") == null ? LocalDynamoDb.start() : null;
+        if (localDynamoDb != null) {
+            System.setProperty("amazon.dynamodb.endpoint", localDynamoDb.endpoint());
+        }
+        List<Result> results = new ArrayList<>();
+        try {
+            for (boolean virtual : new boolean[]{false, true}) {
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                        .properties("server.port=0",
+                                "season.cache.enabled=false",
+                                "season.threads.virtual=" + virtual)
+                        .run()) {
+                    String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                    seed(baseUrl);
+                    run(baseUrl, clients, warmupSeconds);
+                    results.add(new Result(virtual ? "virtual" : "platform", clients, seconds,
+                            run(baseUrl, clients, seconds)));
+                }
+            }
+        } finally {
+            if (localDynamoDb != null) {
+                localDynamoDb.close();
+            }
+        }
+        System.out.printf("%-10s %8s %12s %10s %10s %10s %10s%n",
+                "threads", "clients", "requests/s", "errors", "p50 ms", "p99 ms", "p99.9 ms");
+        results.forEach(System.out::println);
+        // DynamoDB Local's shard rollover job keeps a non-daemon thread running after stop()
+        System.exit(0);
+    }
+
+    private static void seed(String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        for (int i = 0; i < SEEDED_SEASONS; i++) {
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/v1/season"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"id\":\"bench-" + i + "\",\"year\":\"2020\",\"rank\":\"1\",\"teamName\":\"Bench\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    /**
+     * Runs {@code clients} clients, each sending its next request as soon as the previous one
+     * completes, for the given number of seconds.
+     */
+    private static Run run(String baseUrl, int clients, int seconds) throws Exception {
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            List<Future<Latencies>> tasks = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                int offset = i;
+                tasks.add(executor.submit(() -> {
+                    Latencies latencies = new Latencies();
+                    for (int n = offset; System.nanoTime() < deadline; n++) {
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/v1/season/bench-" + (n % SEEDED_SEASONS)))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return latencies;
+                }));
+            }
+            Latencies all = new Latencies();
+            for (Future<Latencies> task : tasks) {
+                all.addAll(task.get());
+            }
+            return new Run(all, errors.sum());
+        }
+    }
+
+    private static class Latencies {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(size - 1, Math.ceil(percentile / 100 * size) - 1);
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private static class Run {
+
+        final Latencies latencies;
+        final long errors;
+
+        Run(Latencies latencies, long errors) {
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+    }
+
+    private static class Result {
+
+        final String threads;
+        final int clients;
+        final int seconds;
+        final Run run;
+
+        Result(String threads, int clients, int seconds, Run run) {
+            this.threads = threads;
+            this.clients = clients;
+            this.seconds = seconds;
+            this.run = run;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %8d %12.1f %10d %10.2f %10.2f %10.2f",
+                    threads, clients, (double) run.latencies.size / seconds, run.errors,
+                    run.latencies.percentileMillis(50),
+                    run.latencies.percentileMillis(99),
+                    run.latencies.percentileMillis(99.9));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.dmv.footballheadz.config;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.*;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Asks DynamoDB to return the consumed capacity of every item, query, scan and batch call and
+ * records the units as the {@code dynamodb.consumed.capacity} summary, tagged with operation and
+ * table. Requests that already set ReturnConsumedCapacity are left as they are.
+ */
+public class ConsumedCapacityHandler extends RequestHandler2 {
+
+    public static final String CONSUMED_CAPACITY = "dynamodb.consumed.capacity";
+
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (request instanceof GetItemRequest && ((GetItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((GetItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof PutItemRequest && ((PutItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((PutItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof UpdateItemRequest && ((UpdateItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((UpdateItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof DeleteItemRequest && ((DeleteItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((DeleteItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof QueryRequest && ((QueryRequest) request).getReturnConsumedCapacity() == null) {
+            ((QueryRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof ScanRequest && ((ScanRequest) request).getReturnConsumedCapacity() == null) {
+            ((ScanRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof BatchGetItemRequest && ((BatchGetItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((BatchGetItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof BatchWriteItemRequest && ((BatchWriteItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((BatchWriteItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        return request;
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        if (response == null) {
+            return;
+        }
+        String operation = request.getOriginalRequest().getClass().getSimpleName().replace("Request", "");
+        for (ConsumedCapacity consumedCapacity : consumedCapacity(response.getAwsResponse())) {
+            if (consumedCapacity != null && consumedCapacity.getCapacityUnits() != null) {
+                String table = consumedCapacity.getTableName() != null ? consumedCapacity.getTableName() : "unknown";
+                Metrics.summary(CONSUMED_CAPACITY, "operation", operation, "table", table)
+                        .record(consumedCapacity.getCapacityUnits());
+            }
+        }
+    }
+
+    private static List<ConsumedCapacity> consumedCapacity(Object result) {
+        if (result instanceof GetItemResult) {
+            return Collections.singletonList(((GetItemResult) result).getConsumedCapacity());
+        } else if (result instanceof PutItemResult) {
+            return Collections.singletonList(((PutItemResult) result).getConsumedCapacity());
+        } else if (result instanceof UpdateItemResult) {
+            return Collections.singletonList(((UpdateItemResult) result).getConsumedCapacity());
+        } else if (result instanceof DeleteItemResult) {
+            return Collections.singletonList(((DeleteItemResult) result).getConsumedCapacity());
+        } else if (result instanceof QueryResult) {
+            return Collections.singletonList(((QueryResult) result).getConsumedCapacity());
+        } else if (result instanceof ScanResult) {
+            return Collections.singletonList(((ScanResult) result).getConsumedCapacity());
+        } else if (result instanceof BatchGetItemResult && ((BatchGetItemResult) result).getConsumedCapacity() != null) {
+            return ((BatchGetItemResult) result).getConsumedCapacity();
+        } else if (result instanceof BatchWriteItemResult && ((BatchWriteItemResult) result).getConsumedCapacity() != null) {
+            return ((BatchWriteItemResult) result).getConsumedCapacity();
+        }
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.dmv.footballheadz.config;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics.Field;
+import com.amazonaws.util.TimingInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the HTTP connection pool usage of one DynamoDB client. The SDK samples the pool when a
+ * request leases its connection; the gauges show the sample of the last completed request next to
+ * the configured pool size, tagged with the client name.
+ */
+public class DynamoDbClientMetrics extends RequestMetricCollector implements MeterBinder {
+
+    private final String client;
+
+    private final int maxConnections;
+
+    private final AtomicLong leased = new AtomicLong();
+
+    private final AtomicLong available = new AtomicLong();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    public DynamoDbClientMetrics(String client, int maxConnections) {
+        this.client = client;
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public void collectMetrics(Request<?> request, Response<?> response) {
+        TimingInfo timingInfo = request.getAWSRequestMetrics().getTimingInfo();
+        update(leased, timingInfo.getCounter(Field.HttpClientPoolLeasedCount.name()));
+        update(available, timingInfo.getCounter(Field.HttpClientPoolAvailableCount.name()));
+        update(pending, timingInfo.getCounter(Field.HttpClientPoolPendingCount.name()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "dynamodb.client.pool.leased", leased, "Connections in use by requests");
+        gauge(registry, "dynamodb.client.pool.available", available, "Idle connections kept in the pool");
+        gauge(registry, "dynamodb.client.pool.pending", pending, "Requests waiting for a connection");
+        Gauge.builder("dynamodb.client.pool.max", () -> maxConnections)
+                .description("Configured maximum connections")
+                .tag("client", client)
+                .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, AtomicLong value, String description) {
+        Gauge.builder(name, value, AtomicLong::get)
+                .description(description)
+                .tag("client", client)
+                .register(registry);
+    }
+
+    private static void update(AtomicLong gauge, Number sample) {
+        if (sample != null) {
+            gauge.set(sample.longValue());
+        }
+    }
+}
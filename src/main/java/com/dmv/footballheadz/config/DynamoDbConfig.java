@@ -1,42 +1,170 @@
 package com.dmv.footballheadz.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.retry.PredefinedBackoffStrategies;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryMode;
+import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsync;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsyncClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 
+import java.util.concurrent.Executors;
+
 @Configuration
 @PropertySource(value = "classpath:application.properties")
 public class DynamoDbConfig {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    @Value("${amazon.dynamodb.endpoint}")
+    @Value("${amazon.dynamodb.endpoint:}")
     private String amazonDynamoDBEndpoint;
 
+    @Value("${amazon.dynamodb.region:us-east-1}")
+    private String amazonDynamoDBRegion;
+
+    @Value("${amazon.dynamodb.client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${amazon.dynamodb.client.connection-ttl-ms:60000}")
+    private long connectionTtlMs;
+
+    @Value("${amazon.dynamodb.client.connection-max-idle-ms:30000}")
+    private long connectionMaxIdleMs;
+
+    @Value("${amazon.dynamodb.client.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+
+    @Value("${amazon.dynamodb.client.connection-timeout-ms:1000}")
+    private int connectionTimeoutMs;
+
+    @Value("${amazon.dynamodb.client.socket-timeout-ms:2000}")
+    private int socketTimeoutMs;
+
+    @Value("${amazon.dynamodb.client.request-timeout-ms:3000}")
+    private int requestTimeoutMs;
+
+    @Value("${amazon.dynamodb.client.execution-timeout-ms:10000}")
+    private int executionTimeoutMs;
+
+    @Value("${amazon.dynamodb.client.retry.mode:ADAPTIVE}")
+    private RetryMode retryMode;
+
+    @Value("${amazon.dynamodb.client.retry.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${amazon.dynamodb.client.retry.base-delay-ms:25}")
+    private int retryBaseDelayMs;
+
+    @Value("${amazon.dynamodb.client.retry.throttled-base-delay-ms:100}")
+    private int retryThrottledBaseDelayMs;
+
+    @Value("${amazon.dynamodb.client.retry.max-backoff-ms:1000}")
+    private int retryMaxBackoffMs;
+
+    @Value("${season.async.threads:50}")
+    private int asyncThreads;
+
     @Value("${amazon.aws.accesskey}")
     private String amazonAWSAccessKey;
 
     @Value("${amazon.aws.secretkey}")
     private String amazonAWSSecretKey;
 
+    /**
+     * Connection pool, timeouts and retries shared by the blocking and the async client. The pool
+     * should cover the request concurrency; each attempt is capped by the request timeout and all
+     * attempts together by the execution timeout, so a slow DynamoDB shows up as a bounded error
+     * rather than as piled up requests. Retries back off with full jitter, throttled calls with
+     * equal jitter from a larger base, and ADAPTIVE mode also rate limits sends client side while
+     * DynamoDB keeps throttling.
+     */
+    @Bean
+    public ClientConfiguration dynamoDBClientConfiguration() {
+        log.trace("Entering dynamoDBClientConfiguration()");
+        log.info("Using DynamoDb client with {} connections, {} retry mode and {} max retries",
+                maxConnections, retryMode, maxRetries);
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+                .withRetryCondition(PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION)
+                .withBackoffStrategy(new PredefinedBackoffStrategies.SDKDefaultBackoffStrategy(
+                        retryBaseDelayMs, retryThrottledBaseDelayMs, retryMaxBackoffMs))
+                .withMaxErrorRetry(maxRetries)
+                .withRetryMode(retryMode)
+                .build();
+        return new ClientConfiguration()
+                .withMaxConnections(maxConnections)
+                .withConnectionTTL(connectionTtlMs)
+                .withConnectionMaxIdleMillis(connectionMaxIdleMs)
+                .withTcpKeepAlive(tcpKeepAlive)
+                .withConnectionTimeout(connectionTimeoutMs)
+                .withSocketTimeout(socketTimeoutMs)
+                .withRequestTimeout(requestTimeoutMs)
+                .withClientExecutionTimeout(executionTimeoutMs)
+                .withRetryPolicy(retryPolicy);
+    }
+
     @Bean
-    public AmazonDynamoDB amazaonDynamoDB() {
+    public DynamoDbClientMetrics dynamoDBClientMetrics() {
+        return new DynamoDbClientMetrics("sync", maxConnections);
+    }
+
+    @Bean
+    public DynamoDbClientMetrics dynamoDBAsyncClientMetrics() {
+        return new DynamoDbClientMetrics("async", maxConnections);
+    }
+
+    @Bean
+    @Primary
+    public AmazonDynamoDB amazaonDynamoDB(ClientConfiguration dynamoDBClientConfiguration) {
         log.trace("Entering amazonDynamoDb()");
-        AmazonDynamoDB client = new AmazonDynamoDBClient();
-        log.info("Using DynamoDb endpoint {}", amazonDynamoDBEndpoint);
-        if (!StringUtils.hasLength(amazonDynamoDBEndpoint)){
-            client.setEndpoint(amazonDynamoDBEndpoint);
+        return configure(AmazonDynamoDBClientBuilder.standard(), dynamoDBClientConfiguration)
+                .withMetricsCollector(dynamoDBClientMetrics())
+                .build();
+    }
+
+    /**
+     * Client for the non-blocking endpoints. The v1 SDK still performs each call on a thread of
+     * its own pool, so {@code season.async.threads} caps the DynamoDB calls in flight while the
+     * request threads that started them are already free again.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public AmazonDynamoDBAsync amazonDynamoDBAsync(ClientConfiguration dynamoDBClientConfiguration) {
+        log.trace("Entering amazonDynamoDBAsync()");
+        log.info("Using {} async DynamoDb threads", asyncThreads);
+        if (asyncThreads > maxConnections) {
+            log.warn("{} async DynamoDb threads share only {} connections", asyncThreads, maxConnections);
+        }
+        return configure(AmazonDynamoDBAsyncClientBuilder.standard(), dynamoDBClientConfiguration)
+                .withMetricsCollector(dynamoDBAsyncClientMetrics())
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(asyncThreads,
+                        new CustomizableThreadFactory("season-dynamodb-async-")))
+                .build();
+    }
+
+    private <B extends AwsClientBuilder<B, ?>> B configure(B builder, ClientConfiguration clientConfiguration) {
+        builder.withClientConfiguration(clientConfiguration)
+                .withRequestHandlers(new ConsumedCapacityHandler());
+        if (StringUtils.hasLength(amazonDynamoDBEndpoint)) {
+            log.info("Using DynamoDb endpoint {}", amazonDynamoDBEndpoint);
+            return builder.withEndpointConfiguration(new EndpointConfiguration(amazonDynamoDBEndpoint, amazonDynamoDBRegion));
         }
-        return client;
+        log.info("Using DynamoDb region {}", amazonDynamoDBRegion);
+        return builder.withRegion(amazonDynamoDBRegion);
     }
 
     @Bean
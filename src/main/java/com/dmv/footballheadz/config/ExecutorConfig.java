@@ -0,0 +1,101 @@
+package com.dmv.footballheadz.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Value("${season.scan.threads:4}")
+    private int scanThreads;
+
+    @Value("${season.scan.queue-capacity:64}")
+    private int scanQueueCapacity;
+
+    @Value("${season.batch.threads:4}")
+    private int batchThreads;
+
+    @Value("${season.batch.queue-capacity:256}")
+    private int batchQueueCapacity;
+
+    @Value("${season.import.max-in-flight:2}")
+    private int importMaxInFlight;
+
+    @Value("${season.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Bounded pool that runs the segments of parallel scans. When the queue is full the
+     * submitting thread runs the segment itself instead of piling up more work.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService scanExecutor() {
+        log.trace("Entering scanExecutor()");
+        log.info("Using {} scan threads", scanThreads);
+        return new ThreadPoolExecutor(scanThreads, scanThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(scanQueueCapacity),
+                threadFactory("season-scan-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Bounded pool that sends BatchWriteItem/BatchGetItem chunks in parallel.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService batchExecutor() {
+        log.trace("Entering batchExecutor()");
+        log.info("Using {} batch threads", batchThreads);
+        return new ThreadPoolExecutor(batchThreads, batchThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(batchQueueCapacity),
+                threadFactory("season-batch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Runs the batched writes of bulk imports. Importers never have more than
+     * {@code season.import.max-in-flight} writes outstanding, so the queue stays short.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService importExecutor() {
+        log.trace("Entering importExecutor()");
+        return new ThreadPoolExecutor(importMaxInFlight, importMaxInFlight, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                threadFactory("season-import-"));
+    }
+
+    /**
+     * Single thread that rebuilds the team totals in the background, so no request waits on the
+     * scan.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService teamsExecutor() {
+        log.trace("Entering teamsExecutor()");
+        return Executors.newSingleThreadScheduledExecutor(threadFactory("season-teams-"));
+    }
+
+    /**
+     * With {@code season.threads.virtual} the pools keep their size and queue bounds, so they still
+     * limit the DynamoDB calls in flight, but each blocking call parks a virtual thread instead of
+     * holding a platform thread.
+     */
+    private ThreadFactory threadFactory(String prefix) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+}
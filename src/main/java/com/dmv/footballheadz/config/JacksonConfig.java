@@ -0,0 +1,29 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.season.impl.Season;
+import com.dmv.footballheadz.season.impl.SeasonFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts the {@link SeasonFields#FILTER} property filter on seasons written by the application's
+ * ObjectMapper, through a mix-in so that Season itself and other mappers are unaffected. Without a
+ * filter set for the response the filter id is unknown and all properties are written.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer seasonFieldsFilter() {
+        return builder -> builder
+                .mixIn(Season.class, SeasonFieldsMixIn.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @JsonFilter(SeasonFields.FILTER)
+    private abstract static class SeasonFieldsMixIn {
+    }
+}
@@ -0,0 +1,19 @@
+package com.dmv.footballheadz.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Endpoints are timed by Spring Boot as http.server.requests. Service and repository methods
+ * annotated with {@code @Timed} are timed by the aspect, tagged with class and method.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.season.impl.SeasonController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives NDJSON streams {@code season.stream.timeout-ms} to finish. Writing the whole table can take
+ * minutes, while every other async handler keeps the container's default timeout.
+ */
+@Configuration
+public class StreamTimeoutConfig implements WebMvcConfigurer {
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(SeasonController.APPLICATION_NDJSON_VALUE);
+
+    @Value("${season.stream.timeout-ms:600000}")
+    private long streamTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(streamTimeoutInterceptor());
+    }
+
+    /**
+     * Sets the timeout just before the streaming body is handed to the async executor, which is
+     * the last point at which the request's timeout can still be changed.
+     */
+    CallableProcessingInterceptor streamTimeoutInterceptor() {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object producible = request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+                        RequestAttributes.SCOPE_REQUEST);
+                if (request instanceof AsyncWebRequest && producible instanceof Collection
+                        && ((Collection<?>) producible).contains(APPLICATION_NDJSON)) {
+                    ((AsyncWebRequest) request).setTimeout(streamTimeoutMs);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.dmv.footballheadz.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling on virtual threads when {@code season.threads.virtual=true}. The
+ * synchronous service and the blocking DynamoDBMapper calls stay as they are; a request waiting
+ * on DynamoDB parks its virtual thread and no longer holds one of Tomcat's worker threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "season.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        log.info("Using virtual threads for request handling");
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("season-request-", 1).factory());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.trace("Entering virtualThreadProtocolHandlerCustomizer()");
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor());
+    }
+
+    /**
+     * Streaming responses are written from the MVC async executor, so they run on virtual threads too.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(requestExecutor()));
+    }
+}
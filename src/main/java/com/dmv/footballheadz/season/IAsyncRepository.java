@@ -0,0 +1,35 @@
+package com.dmv.footballheadz.season;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface IAsyncRepository<T> {
+
+    CompletableFuture<Optional<T>> read(String id);
+
+    /**
+     * @return false when an item with the same key already exists
+     */
+    CompletableFuture<Boolean> saveIfAbsent(T t);
+
+    /**
+     * Replaces the item if it still has the version t carries, as {@link IRepository#replace}.
+     *
+     * @return the previous item, or empty when there was nothing to replace; fails with a
+     * {@link VersionConflictException} when the item has another version
+     */
+    CompletableFuture<Optional<T>> replace(T t);
+
+    /**
+     * Updates the item if it still has the version t carries, as {@link IRepository#update}.
+     *
+     * @return the item as stored after the update, or empty when there was nothing to update; fails
+     * with a {@link VersionConflictException} when the item has another version
+     */
+    CompletableFuture<Optional<T>> update(T t);
+
+    /**
+     * @return the deleted item, or empty when there was nothing to delete
+     */
+    CompletableFuture<Optional<T>> delete(String id);
+}
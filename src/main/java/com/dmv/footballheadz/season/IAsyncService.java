@@ -0,0 +1,17 @@
+package com.dmv.footballheadz.season;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface IAsyncService<T> {
+
+    CompletableFuture<Optional<T>> read(String id);
+
+    CompletableFuture<Optional<T>> create(T t);
+
+    CompletableFuture<Optional<T>> replace(T newData);
+
+    CompletableFuture<Optional<T>> update(T newData);
+
+    CompletableFuture<Boolean> delete(String key);
+}
@@ -1,20 +1,91 @@
 package com.dmv.footballheadz.season;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
-
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Methods taking {@code fields} read only those fields of each item, by property name, or all of
+ * them when fields is null. Implementations may return more fields than asked for.
+ */
 public interface IRepository<T> {
 
-    List<T> readExpression(DynamoDBScanExpression dynamoDBScanExpression);
+    List<T> readByYear(String year);
+
+    List<T> readByYear(String year, Set<String> fields);
+
+    List<T> readByTeam(String teamName);
 
     List<T> readAll();
 
+    List<T> readAll(Set<String> fields);
+
+    Iterable<T> readAllLazily();
+
+    Page<T> readPage(int limit, String token);
+
+    Page<T> readPage(int limit, String token, Set<String> fields);
+
+    /**
+     * Reads one page of one segment of a parallel scan over {@code totalSegments} segments.
+     *
+     * @param limit maximum items evaluated by the page, 0 for DynamoDB's 1 MB default
+     */
+    Page<T> readSegmentPage(int segment, int totalSegments, int limit, String token);
+
+    Page<T> readByYearPage(String year, int limit, String token);
+
+    Page<T> readByYearPage(String year, int limit, String token, Set<String> fields);
+
     Optional<T> read(String key);
 
+    Optional<T> read(String key, Set<String> fields);
+
+    /**
+     * @return the items found for the given keys in key order, unknown keys are skipped
+     */
+    List<T> batchRead(List<String> keys);
+
     void save(T t);
 
-    void delete(String key);
+    /**
+     * Saves the item only if no item with the same key exists yet.
+     *
+     * @return false if the item already existed and nothing was written
+     */
+    boolean saveIfAbsent(T t);
+
+    /**
+     * Upserts the items with batched writes, which cannot be conditional: versions are incremented
+     * from the stored ones, read just before writing, and the ones the items carry are ignored. A
+     * conditional write landing between that read and the batch is overwritten. On success each
+     * item carries its new version.
+     *
+     * @return the items that could not be written
+     */
+    List<T> batchSave(List<T> items);
+
+    /**
+     * Overwrites the existing item with the same key if it still has the version t carries, null
+     * meaning an item written before versioning. On success t carries the new version.
+     *
+     * @return the item as it was before, or empty if no such item exists and nothing was written
+     * @throws VersionConflictException if the item exists with another version
+     */
+    Optional<T> replace(T t);
+
+    /**
+     * Writes the non-empty attributes of t onto the existing item with the same key if it still
+     * has the version t carries, null meaning an item written before versioning.
+     *
+     * @return the item as stored after the update, or empty if no such item exists
+     * @throws VersionConflictException if the item exists with another version
+     */
+    Optional<T> update(T t);
+
+    /**
+     * @return the deleted item, or empty if no such item exists
+     */
+    Optional<T> delete(String key);
 
 }
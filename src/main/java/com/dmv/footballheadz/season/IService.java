@@ -2,21 +2,78 @@ package com.dmv.footballheadz.season;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 
 public interface IService<T> {
 
     Optional<T> read(String id);
 
+    /**
+     * @param fields the properties to read, null for all; see {@link IRepository}
+     */
+    Optional<T> read(String id, Set<String> fields);
+
+    List<T> batchRead(List<String> ids);
+
     Optional<T> create(T t);
 
+    /**
+     * Replaces the stored item, or only the one with the version newData carries if it has one.
+     *
+     * @throws PreconditionFailedException if the stored item has another version than newData
+     * @throws VersionConflictException if every attempt lost to a concurrent write
+     */
     Optional<T> replace(T newData);
 
+    /**
+     * Reads the stored item, checks the precondition on it and writes newData conditional on the
+     * version read. When a concurrent write gets in between, the attempt is started over from the
+     * read, a bounded number of times.
+     *
+     * @param precondition checked on the stored item before writing, null for none
+     * @throws PreconditionFailedException if the stored item does not satisfy the precondition or
+     * has another version than newData carries
+     * @throws VersionConflictException if every attempt lost to a concurrent write
+     */
+    Optional<T> replace(T newData, Predicate<T> precondition);
+
+    /**
+     * Updates the stored item, or only the one with the version newData carries if it has one.
+     *
+     * @throws PreconditionFailedException if the stored item has another version than newData
+     * @throws VersionConflictException if every attempt lost to a concurrent write
+     */
     Optional<T> update(T newData);
 
+    /**
+     * Updates the stored item the way {@link #replace(Object, Predicate)} replaces it.
+     */
+    Optional<T> update(T newData, Predicate<T> precondition);
+
     boolean delete(String key);
 
+    /**
+     * @return the items that could not be written
+     */
+    List<T> batchSave(List<T> items);
+
     List<T> list();
 
+    List<T> list(Set<String> fields);
+
+    Iterable<T> listLazily();
+
     List<T> listByYear(String key);
+
+    List<T> listByYear(String key, Set<String> fields);
+
+    Page<T> list(int limit, String token);
+
+    Page<T> list(int limit, String token, Set<String> fields);
+
+    Page<T> listByYear(String key, int limit, String token);
+
+    Page<T> listByYear(String key, int limit, String token, Set<String> fields);
 }
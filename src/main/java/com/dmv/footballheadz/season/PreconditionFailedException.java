@@ -0,0 +1,14 @@
+package com.dmv.footballheadz.season;
+
+/**
+ * The stored item does not satisfy the precondition a write was made on, such as an If-Match
+ * ETag or the version the client last read.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String id) {
+        super("Precondition failed for item " + id);
+    }
+}
@@ -0,0 +1,14 @@
+package com.dmv.footballheadz.season;
+
+/**
+ * The stored item's version is not the one a conditional write expected: someone else wrote it
+ * in between.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public VersionConflictException(String id) {
+        super("Item " + id + " was modified concurrently");
+    }
+}
@@ -0,0 +1,88 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.PreconditionFailedException;
+import com.dmv.footballheadz.season.VersionConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * Single item endpoints of {@link SeasonController} on the async DynamoDB client. Handlers return
+ * as soon as the DynamoDB call is sent, so the request thread goes back to Tomcat while the call
+ * is in flight and the response is written when the future completes.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/v2")
+public class AsyncSeasonController {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private AsyncSeasonService service;
+
+    @RequestMapping(path = "/season/{id}", method = RequestMethod.GET)
+    public CompletableFuture<ResponseEntity<Season>> read(@PathVariable String id) {
+        log.trace("Entering read() with {}", id);
+        return service.read(id).thenApply(season -> season
+                .map(found -> new ResponseEntity<>(found, OK))
+                .orElse(new ResponseEntity<>(NOT_FOUND)));
+    }
+
+    @RequestMapping(path = "/season", method = RequestMethod.POST)
+    public CompletableFuture<ResponseEntity<Season>> create(@RequestBody @Valid Season season) {
+        log.trace("Entering create() with {}", season);
+        return service.create(season).thenApply(created -> created
+                .map(newSeasonData -> new ResponseEntity<>(newSeasonData, CREATED))
+                .orElse(new ResponseEntity<>(CONFLICT)));
+    }
+
+    @RequestMapping(path = "/season/{id}", method = RequestMethod.PUT)
+    public CompletableFuture<ResponseEntity<Season>> put(@PathVariable String id, @RequestBody Season season) {
+        log.trace("Entering put() with {}, {}", id, season);
+        return service.replace(season.withId(id)).thenApply(replaced -> replaced
+                .map(newSeasonData -> new ResponseEntity<>(newSeasonData, OK))
+                .orElse(new ResponseEntity<>(NOT_FOUND)))
+                .exceptionally(AsyncSeasonController::conflict);
+    }
+
+    @RequestMapping(path = "/season/{id}", method = RequestMethod.PATCH)
+    public CompletableFuture<ResponseEntity<Season>> patch(@PathVariable String id, @RequestBody Season season) {
+        log.trace("Entering patch() with {}, {}", id, season);
+        return service.update(season.withId(id)).thenApply(updated -> updated
+                .map(newSeasonData -> new ResponseEntity<>(newSeasonData, OK))
+                .orElse(new ResponseEntity<>(NOT_FOUND)))
+                .exceptionally(AsyncSeasonController::conflict);
+    }
+
+    @RequestMapping(path = "/season/{id}", method = RequestMethod.DELETE)
+    public CompletableFuture<ResponseEntity<Void>> delete(@PathVariable String id) {
+        log.trace("Entering delete() with {}", id);
+        return service.delete(id).thenApply(deleted -> deleted ?
+                new ResponseEntity<>(NO_CONTENT) :
+                new ResponseEntity<>(NOT_FOUND));
+    }
+
+    /**
+     * 412 when the version in the body is not the stored one, 409 when every attempt lost to a
+     * concurrent write, as on {@link SeasonController}.
+     */
+    private static ResponseEntity<Season> conflict(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof PreconditionFailedException) {
+            return new ResponseEntity<>(PRECONDITION_FAILED);
+        }
+        if (cause instanceof VersionConflictException) {
+            return new ResponseEntity<>(CONFLICT);
+        }
+        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(cause);
+    }
+}
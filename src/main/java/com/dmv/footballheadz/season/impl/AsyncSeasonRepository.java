@@ -0,0 +1,205 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsync;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.dmv.footballheadz.season.IAsyncRepository;
+import com.dmv.footballheadz.season.VersionConflictException;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Sends the same single item requests as {@link SeasonRepository} through the async DynamoDB
+ * client. Callers get a future back straight away and no request thread waits on DynamoDB; the
+ * calls themselves run on the client's own bounded executor.
+ */
+@Repository
+@Profile("!in-memory")
+public class AsyncSeasonRepository implements IAsyncRepository<Season> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private DynamoDBMapper dbMapper;
+
+    @Autowired
+    private AmazonDynamoDBAsync dynamoDBAsync;
+
+    @Autowired(required = false)
+    private SeasonCache cache;
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public CompletableFuture<Optional<Season>> read(String id) {
+        log.trace("Entering read() with {}", id);
+        if (cache != null) {
+            Optional<Season> cached = cache.getAllPresent(Collections.singleton(id)).get(id);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        CompletableFuture<GetItemResult> item = call(dynamoDBAsync::getItemAsync, SeasonRequests.get(id));
+        return item.thenApply(result -> {
+            Optional<Season> season = Optional.ofNullable(result.getItem()).map(this::unconvert);
+            if (cache != null) {
+                season.ifPresent(cache::putRead);
+            }
+            return season;
+        });
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public CompletableFuture<Boolean> saveIfAbsent(Season season) {
+        log.trace("Entering saveIfAbsent() with {}", season);
+        Season created = new Season(season).withVersion(SeasonRequests.nextVersion(null));
+        PutItemRequest request = SeasonRequests.putIfAbsent(model().convert(created));
+        CompletableFuture<PutItemResult> put = call(dynamoDBAsync::putItemAsync, request);
+        return put.handle((result, e) -> {
+            if (e != null && !isConditionalCheckFailure(e)) {
+                throw new CompletionException(unwrap(e));
+            }
+            if (e != null) {
+                SeasonMetrics.conditionalCheckFailed("saveIfAbsent");
+            } else {
+                season.setVersion(created.getVersion());
+            }
+            if (cache != null) {
+                if (e == null) {
+                    cache.put(created);
+                } else {
+                    cache.invalidate(season.getId());
+                }
+            }
+            return e == null;
+        });
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public CompletableFuture<Optional<Season>> replace(Season season) {
+        log.trace("Entering replace() with {}", season);
+        Season next = new Season(season).withVersion(SeasonRequests.nextVersion(season.getVersion()));
+        PutItemRequest request = SeasonRequests.replace(model().convert(next), season.getVersion());
+        CompletableFuture<PutItemResult> put = call(dynamoDBAsync::putItemAsync, request);
+        return conditional("replace", season.getId(), put.thenApply(result -> {
+            season.setVersion(next.getVersion());
+            if (cache != null) {
+                cache.put(next);
+            }
+            return unconvert(result.getAttributes());
+        }));
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public CompletableFuture<Optional<Season>> update(Season season) {
+        log.trace("Entering update() with {}", season);
+        Map<String, AttributeValue> attributes = SeasonRequests.updatableAttributes(model().convert(season));
+        // a patch without attributes still sets the version, so a stale one is rejected as for any other
+        UpdateItemRequest request = SeasonRequests.update(season.getId(), attributes, season.getVersion());
+        CompletableFuture<UpdateItemResult> update = call(dynamoDBAsync::updateItemAsync, request);
+        return conditional("update", season.getId(), update.thenApply(result -> {
+            Season updated = unconvert(result.getAttributes());
+            if (cache != null) {
+                cache.put(updated);
+            }
+            return updated;
+        }));
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public CompletableFuture<Optional<Season>> delete(String id) {
+        log.trace("Entering delete() with {}", id);
+        CompletableFuture<DeleteItemResult> delete = call(dynamoDBAsync::deleteItemAsync, SeasonRequests.delete(id));
+        return conditional("delete", id, delete
+                .whenComplete((result, e) -> {
+                    if (cache != null) {
+                        cache.invalidate(id);
+                    }
+                })
+                .thenApply(result -> unconvert(result.getAttributes())));
+    }
+
+    private DynamoDBMapperTableModel<Season> model() {
+        return dbMapper.getTableModel(Season.class);
+    }
+
+    private Season unconvert(Map<String, AttributeValue> item) {
+        return model().unconvert(item);
+    }
+
+    /**
+     * Maps a failed condition to an empty result, or to a {@link VersionConflictException} when
+     * DynamoDB returned the stored item, the same way the blocking repository does.
+     */
+    private CompletableFuture<Optional<Season>> conditional(String operation, String id, CompletableFuture<Season> future) {
+        return future.handle((season, e) -> {
+            if (e == null) {
+                return Optional.of(season);
+            }
+            if (isConditionalCheckFailure(e)) {
+                SeasonMetrics.conditionalCheckFailed(operation);
+                if (cache != null) {
+                    cache.invalidate(id);
+                }
+                if (((ConditionalCheckFailedException) unwrap(e)).getItem() != null) {
+                    throw new VersionConflictException(id);
+                }
+                return Optional.empty();
+            }
+            throw new CompletionException(unwrap(e));
+        });
+    }
+
+    private static boolean isConditionalCheckFailure(Throwable e) {
+        return unwrap(e) instanceof ConditionalCheckFailedException;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Bridges the client's callback style to a CompletableFuture.
+     */
+    private static <Q extends AmazonWebServiceRequest, R> CompletableFuture<R> call(
+            BiFunction<Q, AsyncHandler<Q, R>, Future<R>> method, Q request) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        method.apply(request, new AsyncHandler<Q, R>() {
+            @Override
+            public void onError(Exception exception) {
+                future.completeExceptionally(exception);
+            }
+
+            @Override
+            public void onSuccess(Q request, R result) {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,168 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.IAsyncRepository;
+import com.dmv.footballheadz.season.IAsyncService;
+import com.dmv.footballheadz.season.PreconditionFailedException;
+import com.dmv.footballheadz.season.VersionConflictException;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Service
+public class AsyncSeasonService implements IAsyncService<Season> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private IAsyncRepository<Season> repository;
+
+    @Autowired
+    private SeasonEtags etags;
+
+    @Autowired
+    private SeasonStandings standings;
+
+    @Autowired
+    private TeamAggregates teams;
+
+    @Value("${season.write.max-attempts:3}")
+    private int writeMaxAttempts;
+
+    @Value("${season.write.base-backoff-ms:10}")
+    private long writeBaseBackoffMs;
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public CompletableFuture<Optional<Season>> read(String id) {
+        log.trace("Entering read() with {}", id);
+        return repository.read(id);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public CompletableFuture<Optional<Season>> create(Season season) {
+        log.trace("Entering create() with {}", season);
+        season.setVersion(null);
+        return repository.saveIfAbsent(season).thenApply(saved -> {
+            if (!saved) {
+                log.warn("Season {} already exists", season.getId());
+                return Optional.empty();
+            }
+            etags.invalidate(season.getId());
+            standings.put(season);
+            teams.putCreated(season);
+            return Optional.of(season);
+        });
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public CompletableFuture<Optional<Season>> replace(Season newSeasonData) {
+        log.trace("Entering replace() with {}", newSeasonData);
+        return versioned("replace", newSeasonData, repository::replace).thenApply(previous -> {
+            if (!previous.isPresent()) {
+                log.warn("Season {} not found", newSeasonData.getId());
+                return Optional.empty();
+            }
+            etags.invalidate(newSeasonData.getId());
+            standings.put(newSeasonData);
+            teams.put(newSeasonData);
+            return Optional.of(newSeasonData);
+        });
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public CompletableFuture<Optional<Season>> update(Season newSeasonData) {
+        log.trace("Entering update() with {}", newSeasonData);
+        return versioned("update", newSeasonData, repository::update).thenApply(season -> {
+            if (!season.isPresent()) {
+                log.warn("Season {} not found", newSeasonData.getId());
+            } else {
+                etags.invalidate(newSeasonData.getId());
+                standings.put(season.get());
+                teams.put(season.get());
+            }
+            return season;
+        });
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public CompletableFuture<Boolean> delete(String id) {
+        log.trace("Entering delete() with {}", id);
+        return repository.delete(id).thenApply(season -> {
+            if (!season.isPresent()) {
+                log.warn("Season {} not found", id);
+                return false;
+            }
+            etags.invalidate(id);
+            standings.remove(id);
+            teams.remove(season.get());
+            return true;
+        });
+    }
+
+    /**
+     * Writes the way {@link SeasonService} does without a precondition: conditional on the version
+     * the season carries, or else on the one read just before, starting over when a concurrent
+     * write gets in between after a full jitter backoff, without blocking a thread meanwhile.
+     */
+    private CompletableFuture<Optional<Season>> versioned(String operation, Season newSeasonData,
+                                                          Function<Season, CompletableFuture<Optional<Season>>> write) {
+        if (newSeasonData.getVersion() != null) {
+            return write.apply(newSeasonData).exceptionally(e -> {
+                if (unwrap(e) instanceof VersionConflictException) {
+                    throw new PreconditionFailedException(newSeasonData.getId());
+                }
+                throw new CompletionException(unwrap(e));
+            });
+        }
+        return attempt(operation, newSeasonData, write, 1);
+    }
+
+    private CompletableFuture<Optional<Season>> attempt(String operation, Season newSeasonData,
+                                                        Function<Season, CompletableFuture<Optional<Season>>> write,
+                                                        int attempt) {
+        return repository.read(newSeasonData.getId())
+                .thenCompose(stored -> {
+                    if (!stored.isPresent()) {
+                        return CompletableFuture.completedFuture(Optional.<Season>empty());
+                    }
+                    newSeasonData.setVersion(stored.get().getVersion());
+                    return write.apply(newSeasonData);
+                })
+                .handle((result, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    if (unwrap(e) instanceof VersionConflictException && attempt < writeMaxAttempts) {
+                        SeasonMetrics.writeRetried(operation);
+                        log.debug("Season {} changed during {}, attempt {}", newSeasonData.getId(), operation, attempt);
+                        newSeasonData.setVersion(null);
+                        Executor delayed = CompletableFuture.delayedExecutor(
+                                ThreadLocalRandom.current().nextLong((writeBaseBackoffMs << Math.min(attempt, 10)) + 1),
+                                TimeUnit.MILLISECONDS);
+                        return CompletableFuture.supplyAsync(() -> attempt(operation, newSeasonData, write, attempt + 1), delayed)
+                                .thenCompose(Function.identity());
+                    }
+                    return CompletableFuture.<Optional<Season>>failedFuture(unwrap(e));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
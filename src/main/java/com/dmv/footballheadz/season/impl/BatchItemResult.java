@@ -0,0 +1,51 @@
+package com.dmv.footballheadz.season.impl;
+
+import java.util.Objects;
+
+public class BatchItemResult {
+
+    public enum Status { SAVED, INVALID, FAILED }
+
+    private String id;
+    private Status status;
+    private String message;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(String id, Status status, String message) {
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchItemResult that = (BatchItemResult) o;
+        return Objects.equals(id, that.id) && status == that.status && Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, status, message);
+    }
+
+    @Override
+    public String toString() {
+        return id + " " + status + (message == null ? "" : " (" + message + ")");
+    }
+}
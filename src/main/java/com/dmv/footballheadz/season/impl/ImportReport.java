@@ -0,0 +1,120 @@
+package com.dmv.footballheadz.season.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome of a bulk import. Counters are updated from the writer threads while the import runs.
+ */
+public class ImportReport {
+
+    private static final int MAX_REPORTED_ROWS = 100;
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong saved = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<RejectedRow> rejectedRows = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> failedIds = Collections.synchronizedList(new ArrayList<>());
+    private volatile long elapsedNanos = -1;
+
+    public static class RejectedRow {
+
+        private final long line;
+        private final String id;
+        private final String reason;
+
+        public RejectedRow(long line, String id, String reason) {
+            this.line = line;
+            this.id = id;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void reject(long line, String id, String reason) {
+        if (rejected.incrementAndGet() <= MAX_REPORTED_ROWS) {
+            rejectedRows.add(new RejectedRow(line, id, reason));
+        }
+    }
+
+    void saved(long count) {
+        saved.addAndGet(count);
+    }
+
+    void failed(List<Season> seasons) {
+        for (Season season : seasons) {
+            if (failed.incrementAndGet() <= MAX_REPORTED_ROWS) {
+                failedIds.add(season.getId());
+            }
+        }
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getSaved() {
+        return saved.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * The first rejected rows, at most 100.
+     */
+    public List<RejectedRow> getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * Ids of the first rows that were valid but could not be written, at most 100.
+     */
+    public List<String> getFailedIds() {
+        return failedIds;
+    }
+
+    public long getElapsedMillis() {
+        long nanos = elapsedNanos < 0 ? System.nanoTime() - startNanos : elapsedNanos;
+        return nanos / 1_000_000;
+    }
+
+    public double getRowsPerSecond() {
+        long millis = getElapsedMillis();
+        return millis == 0 ? rowsRead.get() : rowsRead.get() * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows read, %d saved, %d rejected, %d failed in %d ms (%.0f rows/s)",
+                getRowsRead(), getSaved(), getRejected(), getFailed(), getElapsedMillis(), getRowsPerSecond());
+    }
+}
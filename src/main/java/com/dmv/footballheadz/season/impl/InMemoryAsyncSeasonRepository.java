@@ -0,0 +1,55 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.IAsyncRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serves the non-blocking endpoints from {@link InMemorySeasonRepository}. Nothing here waits on
+ * I/O, so every call runs on the caller's thread and returns a completed future.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryAsyncSeasonRepository implements IAsyncRepository<Season> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private InMemorySeasonRepository repository;
+
+    @Override
+    public CompletableFuture<Optional<Season>> read(String id) {
+        log.trace("Entering read() with {}", id);
+        return CompletableFuture.completedFuture(repository.read(id));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(Season season) {
+        log.trace("Entering saveIfAbsent() with {}", season);
+        return CompletableFuture.completedFuture(repository.saveIfAbsent(season));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Season>> replace(Season season) {
+        log.trace("Entering replace() with {}", season);
+        return CompletableFuture.completedFuture(repository.replace(season));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Season>> update(Season season) {
+        log.trace("Entering update() with {}", season);
+        return CompletableFuture.completedFuture(repository.update(season));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Season>> delete(String id) {
+        log.trace("Entering delete() with {}", id);
+        return CompletableFuture.completedFuture(repository.delete(id));
+    }
+}
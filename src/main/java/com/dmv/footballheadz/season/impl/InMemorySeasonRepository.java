@@ -0,0 +1,401 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.dmv.footballheadz.season.IRepository;
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.VersionConflictException;
+import com.dmv.footballheadz.util.PageTokens;
+import io.micrometer.core.annotation.Timed;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the seasons in memory, selected with the {@code in-memory} profile for development, tests
+ * and benchmarks. Seasons are held in a map keyed by Id with sorted Id sets indexed by year and by
+ * team name. Reads never lock: they look ids up in an index and then in the map. Writes go through
+ * {@link ConcurrentHashMap#compute} so the item and its index entries change together per key; a
+ * reader racing a write that moves a season between years may see the id in both index entries,
+ * which is why index lookups check the season they find.
+ * <p>
+ * Items are copied in and out, so callers cannot change stored seasons behind the indexes' back.
+ * Versions follow the DynamoDB repository: replace and update check and increment them inside the
+ * compute, saves increment them without a check.
+ * Pages are handed out in Id order with the same page tokens as the DynamoDB repository. Reading
+ * whole items costs nothing extra here, so field selections are ignored.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemorySeasonRepository implements IRepository<Season> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<String, Season> seasons = new ConcurrentHashMap<>();
+
+    private final NavigableSet<String> ids = new ConcurrentSkipListSet<>();
+
+    private final ConcurrentMap<String, NavigableSet<String>> idsByYear = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, NavigableSet<String>> idsByTeam = new ConcurrentHashMap<>();
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> readByYear(String year) {
+        log.trace("Entering readByYear() with {}", year);
+        return lookup(idsByYear, year, Season::getYear);
+    }
+
+    @Override
+    public List<Season> readByYear(String year, Set<String> fields) {
+        return readByYear(year);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> readByTeam(String teamName) {
+        log.trace("Entering readByTeam() with {}", teamName);
+        return lookup(idsByTeam, teamName, Season::getTeamName);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> readAll() {
+        log.trace("Entering readAll()");
+        List<Season> results = new ArrayList<>(seasons.size());
+        readAllLazily().forEach(results::add);
+        return results;
+    }
+
+    @Override
+    public List<Season> readAll(Set<String> fields) {
+        return readAll();
+    }
+
+    @Override
+    public Iterable<Season> readAllLazily() {
+        log.trace("Entering readAllLazily()");
+        return () -> new Iterator<Season>() {
+
+            private final Iterator<String> remaining = ids.iterator();
+
+            private Season next = advance();
+
+            private Season advance() {
+                while (remaining.hasNext()) {
+                    Season season = seasons.get(remaining.next());
+                    if (season != null) {
+                        return new Season(season);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Season next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Season current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readPage(int limit, String token) {
+        log.trace("Entering readPage() with {}", limit);
+        return page(ids, season -> true, limit, token);
+    }
+
+    @Override
+    public Page<Season> readPage(int limit, String token, Set<String> fields) {
+        return readPage(limit, token);
+    }
+
+    /**
+     * Segments split the ids by hash, as DynamoDB splits the table by partition key.
+     *
+     * @param limit maximum items in the page, 0 for the rest of the segment
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readSegmentPage(int segment, int totalSegments, int limit, String token) {
+        log.trace("Entering readSegmentPage() with {} of {}", segment, totalSegments);
+        return page(ids, season -> Math.floorMod(season.getId().hashCode(), totalSegments) == segment,
+                limit > 0 ? limit : Integer.MAX_VALUE, token);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readByYearPage(String year, int limit, String token) {
+        log.trace("Entering readByYearPage() with {}, {}", year, limit);
+        NavigableSet<String> yearIds = idsByYear.getOrDefault(year, Collections.emptyNavigableSet());
+        return page(yearIds, season -> year.equals(season.getYear()), limit, token);
+    }
+
+    @Override
+    public Page<Season> readByYearPage(String year, int limit, String token, Set<String> fields) {
+        return readByYearPage(year, limit, token);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> read(String id) {
+        log.trace("Entering read() with {}", id);
+        return Optional.ofNullable(seasons.get(id)).map(Season::new);
+    }
+
+    @Override
+    public Optional<Season> read(String id, Set<String> fields) {
+        return read(id);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> batchRead(List<String> keys) {
+        log.trace("Entering batchRead() with {} ids", keys.size());
+        List<Season> results = new ArrayList<>(keys.size());
+        keys.stream().distinct().forEach(id -> read(id).ifPresent(results::add));
+        return results;
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public void save(Season season) {
+        log.trace("Entering save() with {}", season);
+        Season stored = new Season(season).withVersion(SeasonRequests.nextVersion(season.getVersion()));
+        seasons.compute(season.getId(), (id, previous) -> index(previous, stored));
+        season.setVersion(stored.getVersion());
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public boolean saveIfAbsent(Season season) {
+        log.trace("Entering saveIfAbsent() with {}", season);
+        Season stored = new Season(season).withVersion(SeasonRequests.nextVersion(season.getVersion()));
+        boolean[] saved = new boolean[1];
+        seasons.compute(season.getId(), (id, previous) -> {
+            if (previous != null) {
+                return previous;
+            }
+            saved[0] = true;
+            return index(null, stored);
+        });
+        if (!saved[0]) {
+            SeasonMetrics.conditionalCheckFailed("saveIfAbsent");
+        } else {
+            season.setVersion(stored.getVersion());
+        }
+        return saved[0];
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> batchSave(List<Season> items) {
+        log.trace("Entering batchSave() with {} seasons", items.size());
+        for (Season season : items) {
+            seasons.compute(season.getId(), (id, previous) -> {
+                Season stored = new Season(season).withVersion(
+                        SeasonRequests.nextVersion(previous == null ? null : previous.getVersion()));
+                season.setVersion(stored.getVersion());
+                return index(previous, stored);
+            });
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> replace(Season season) {
+        log.trace("Entering replace() with {}", season);
+        Season stored = new Season(season).withVersion(SeasonRequests.nextVersion(season.getVersion()));
+        Season[] replaced = new Season[1];
+        seasons.computeIfPresent(season.getId(), (id, previous) -> {
+            checkVersion("replace", previous, season);
+            replaced[0] = previous;
+            return index(previous, stored);
+        });
+        if (replaced[0] == null) {
+            SeasonMetrics.conditionalCheckFailed("replace");
+            return Optional.empty();
+        }
+        season.setVersion(stored.getVersion());
+        return Optional.of(new Season(replaced[0]));
+    }
+
+    /**
+     * Applies the attributes DynamoDB's update would set: everything but the Id that is neither
+     * null nor an empty string.
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> update(Season season) {
+        log.trace("Entering update() with {}", season);
+        Season updated = seasons.computeIfPresent(season.getId(), (id, previous) -> {
+            checkVersion("update", previous, season);
+            return index(previous, merge(previous, season));
+        });
+        if (updated == null) {
+            SeasonMetrics.conditionalCheckFailed("update");
+        }
+        return Optional.ofNullable(updated).map(Season::new);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> delete(String id) {
+        log.trace("Entering delete() with {}", id);
+        Season[] deleted = new Season[1];
+        seasons.computeIfPresent(id, (key, previous) -> {
+            deleted[0] = previous;
+            return index(previous, null);
+        });
+        if (deleted[0] == null) {
+            SeasonMetrics.conditionalCheckFailed("delete");
+        }
+        return Optional.ofNullable(deleted[0]);
+    }
+
+    private static Season merge(Season previous, Season changes) {
+        Season merged = new Season(previous);
+        if (StringUtils.isNotEmpty(changes.getYear())) {
+            merged.setYear(changes.getYear());
+        }
+        if (StringUtils.isNotEmpty(changes.getRank())) {
+            merged.setRank(changes.getRank());
+        }
+        if (StringUtils.isNotEmpty(changes.getPlayoffRank())) {
+            merged.setPlayoffRank(changes.getPlayoffRank());
+        }
+        if (StringUtils.isNotEmpty(changes.getTeamName())) {
+            merged.setTeamName(changes.getTeamName());
+        }
+        if (StringUtils.isNotEmpty(changes.getRecord())) {
+            merged.setRecord(changes.getRecord());
+        }
+        if (changes.getPct() != null) {
+            merged.setPct(changes.getPct());
+        }
+        if (StringUtils.isNotEmpty(changes.getStreak())) {
+            merged.setStreak(changes.getStreak());
+        }
+        if (changes.getPointsFor() != null) {
+            merged.setPointsFor(changes.getPointsFor());
+        }
+        if (changes.getPointsAgainst() != null) {
+            merged.setPointsAgainst(changes.getPointsAgainst());
+        }
+        merged.setVersion(SeasonRequests.nextVersion(previous.getVersion()));
+        return merged;
+    }
+
+    /**
+     * Throwing inside the compute leaves the stored season as it was.
+     */
+    private static void checkVersion(String operation, Season previous, Season expected) {
+        if (!Objects.equals(previous.getVersion(), expected.getVersion())) {
+            SeasonMetrics.conditionalCheckFailed(operation);
+            throw new VersionConflictException(expected.getId());
+        }
+    }
+
+    /**
+     * Moves the index entries from the previous to the current version of a season. Called inside
+     * the compute of its id, so writes to one season are applied one at a time.
+     *
+     * @return current, for use as the compute result
+     */
+    private Season index(Season previous, Season current) {
+        String id = previous != null ? previous.getId() : current.getId();
+        reindex(idsByYear, id, previous == null ? null : previous.getYear(), current == null ? null : current.getYear());
+        reindex(idsByTeam, id, previous == null ? null : previous.getTeamName(), current == null ? null : current.getTeamName());
+        if (current == null) {
+            ids.remove(id);
+        } else if (previous == null) {
+            ids.add(id);
+        }
+        return current;
+    }
+
+    private static void reindex(ConcurrentMap<String, NavigableSet<String>> index, String id, String from, String to) {
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        if (to != null) {
+            index.computeIfAbsent(to, key -> new ConcurrentSkipListSet<>()).add(id);
+        }
+        if (from != null) {
+            NavigableSet<String> previousIds = index.get(from);
+            if (previousIds != null) {
+                previousIds.remove(id);
+            }
+        }
+    }
+
+    private List<Season> lookup(ConcurrentMap<String, NavigableSet<String>> index, String key,
+                                Function<Season, String> attribute) {
+        NavigableSet<String> indexed = index.get(key);
+        if (indexed == null) {
+            return new ArrayList<>();
+        }
+        List<Season> results = new ArrayList<>(indexed.size());
+        for (String id : indexed) {
+            Season season = seasons.get(id);
+            if (season != null && key.equals(attribute.apply(season))) {
+                results.add(new Season(season));
+            }
+        }
+        return results;
+    }
+
+    private Page<Season> page(NavigableSet<String> candidates, Predicate<Season> filter,
+                              int limit, String token) {
+        Map<String, AttributeValue> startKey = PageTokens.decode(token);
+        NavigableSet<String> remaining = candidates;
+        if (startKey != null) {
+            AttributeValue startId = startKey.get("Id");
+            if (startId == null || startId.getS() == null) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            remaining = candidates.tailSet(startId.getS(), false);
+        }
+        List<Season> items = new ArrayList<>(Math.min(limit, 1000));
+        String lastId = null;
+        for (String id : remaining) {
+            if (items.size() == limit) {
+                return new Page<>(items, PageTokens.encode(SeasonRequests.key(lastId)));
+            }
+            Season season = seasons.get(id);
+            if (season != null && filter.test(season)) {
+                items.add(new Season(season));
+                lastId = id;
+            }
+        }
+        return new Page<>(items, null);
+    }
+}
@@ -0,0 +1,176 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that paces full table scans to {@code season.scan.capacity-fraction} of the
+ * table's read capacity, leaving the rest to interactive reads. A scan page costs an unknown
+ * number of units until DynamoDB reports them, so scanners wait for a non-negative balance before
+ * each page and pay the consumed units afterwards; a large page drives the balance negative and
+ * the next page waits until it has been paid back. All scans share one bucket, so parallel
+ * segments together stay within the budget.
+ * <p>
+ * Without a page size an unbounded page reads up to 1 MB, 128 units at once, however small the
+ * budget. Scans without one are therefore limited to {@link #pageLimit()} items, about one second
+ * of the budget for items of {@code season.scan.item-size-bytes}.
+ * <p>
+ * The capacity comes from {@code season.scan.read-capacity-units} or, when that is 0, from the
+ * table's provisioned read capacity, refreshed every {@code season.scan.capacity-refresh-seconds}.
+ * On-demand tables report no provisioned capacity and are not paced. The refresh calls
+ * DescribeTable outside the bucket's lock, on whichever scanner finds it due, so the other
+ * scanners keep going at the current rate meanwhile.
+ */
+@Component
+@ConditionalOnProperty(name = "season.scan.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ScanRateLimiter {
+
+    /**
+     * Bytes an eventually consistent scan reads per unit.
+     */
+    static final int BYTES_PER_UNIT = 8192;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private AmazonDynamoDB dynamoDB;
+
+    @Value("${season.scan.capacity-fraction:0.25}")
+    private double capacityFraction;
+
+    @Value("${season.scan.read-capacity-units:0}")
+    private double readCapacityUnits;
+
+    @Value("${season.scan.capacity-refresh-seconds:300}")
+    private long capacityRefreshSeconds;
+
+    @Value("${season.scan.item-size-bytes:1024}")
+    private int itemSizeBytes;
+
+    private final LongSupplier nanoClock;
+
+    private volatile double unitsPerSecond;
+
+    private double available;
+
+    private long lastRefill;
+
+    private final AtomicLong nextCapacityRefresh;
+
+    public ScanRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    ScanRateLimiter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.lastRefill = nanoClock.getAsLong();
+        this.nextCapacityRefresh = new AtomicLong(lastRefill);
+    }
+
+    /**
+     * Blocks until the bucket is no longer in debt.
+     */
+    public void acquire() {
+        long waitNanos;
+        while ((waitNanos = reserve()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for scan capacity", e);
+            }
+        }
+    }
+
+    /**
+     * Pays the units a scan page consumed.
+     */
+    public void consume(ConsumedCapacity consumedCapacity) {
+        if (consumedCapacity == null || consumedCapacity.getCapacityUnits() == null) {
+            return;
+        }
+        synchronized (this) {
+            refill();
+            available -= consumedCapacity.getCapacityUnits();
+        }
+    }
+
+    /**
+     * @return the number of items a scan page without a configured size should read, 0 when scans
+     * are not paced
+     */
+    public int pageLimit() {
+        double rate = unitsPerSecond;
+        if (rate <= 0) {
+            return 0;
+        }
+        double itemsPerUnit = (double) BYTES_PER_UNIT / Math.max(itemSizeBytes, 1);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.floor(rate * itemsPerUnit)));
+    }
+
+    /**
+     * @return nanoseconds to wait before the balance is non-negative, 0 to go ahead
+     */
+    long reserve() {
+        refreshCapacity();
+        synchronized (this) {
+            refill();
+            if (unitsPerSecond <= 0 || available >= 0) {
+                return 0;
+            }
+            return (long) Math.ceil(-available / unitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        double refilled = available + (now - lastRefill) * unitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        // allow at most one second of burst after an idle period
+        available = Math.min(refilled, unitsPerSecond);
+        lastRefill = now;
+    }
+
+    /**
+     * Only the scanner that claims a due refresh reads the capacity; the new rate applies from
+     * the moment it is published, after refilling at the old one.
+     */
+    private void refreshCapacity() {
+        long now = nanoClock.getAsLong();
+        long next = nextCapacityRefresh.get();
+        if (now - next < 0
+                || !nextCapacityRefresh.compareAndSet(next, now + TimeUnit.SECONDS.toNanos(capacityRefreshSeconds))) {
+            return;
+        }
+        double units = readCapacityUnits;
+        if (units <= 0) {
+            try {
+                ProvisionedThroughputDescription throughput = dynamoDB.describeTable(Season.TABLE_NAME)
+                        .getTable().getProvisionedThroughput();
+                units = throughput == null || throughput.getReadCapacityUnits() == null ? 0
+                        : throughput.getReadCapacityUnits();
+            } catch (RuntimeException e) {
+                log.warn("Could not read capacity of {}, keeping {} units/s for scans", Season.TABLE_NAME, unitsPerSecond, e);
+                return;
+            }
+        }
+        double rate = units * capacityFraction;
+        if (rate != unitsPerSecond) {
+            log.info("Pacing scans at {} of {} read units, {} units/s", capacityFraction, units, rate);
+            synchronized (this) {
+                refill();
+                unitsPerSecond = rate;
+            }
+        }
+    }
+}
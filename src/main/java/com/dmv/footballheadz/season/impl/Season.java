@@ -2,17 +2,23 @@ package com.dmv.footballheadz.season.impl;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
 
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
 import java.util.Objects;
 
-@DynamoDBTable(tableName = "Season")
+@DynamoDBTable(tableName = Season.TABLE_NAME)
 public class Season implements Serializable {
 
     private static final long serialVersionUID = -3534650012619938612L;
 
+    public static final String TABLE_NAME = "Season";
+
+    public static final String YEAR_INDEX = "Year-index";
+
     private String id;
     private String year;
     private String rank;
@@ -23,6 +29,24 @@ public class Season implements Serializable {
     private String streak;
     private Double pointsFor;
     private Double pointsAgainst;
+    private Long version;
+
+    public Season() {
+    }
+
+    public Season(Season other) {
+        this.id = other.id;
+        this.year = other.year;
+        this.rank = other.rank;
+        this.playoffRank = other.playoffRank;
+        this.teamName = other.teamName;
+        this.record = other.record;
+        this.pct = other.pct;
+        this.streak = other.streak;
+        this.pointsFor = other.pointsFor;
+        this.pointsAgainst = other.pointsAgainst;
+        this.version = other.version;
+    }
 
     @DynamoDBHashKey(attributeName = "Id")
     @NotNull(message = "Id must not be empty")
@@ -39,7 +63,7 @@ public class Season implements Serializable {
         return this;
     }
 
-    @DynamoDBAttribute(attributeName = "Year")
+    @DynamoDBIndexHashKey(attributeName = "Year", globalSecondaryIndexName = YEAR_INDEX)
     public String getYear() {
         return year;
     }
@@ -165,6 +189,23 @@ public class Season implements Serializable {
         return this;
     }
 
+    /**
+     * Incremented by every write, starting at 1; null for items written before versioning.
+     */
+    @DynamoDBVersionAttribute(attributeName = "Version")
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Season withVersion(Long version) {
+        setVersion(version);
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -174,11 +215,12 @@ public class Season implements Serializable {
                 && Objects.equals(rank, season.rank) && Objects.equals(playoffRank, season.playoffRank)
                 && Objects.equals(teamName, season.teamName) && Objects.equals(record, season.record)
                 && Objects.equals(pct, season.pct) && Objects.equals(streak, season.streak)
-                && Objects.equals(pointsFor, season.pointsFor) && Objects.equals(pointsAgainst, season.pointsAgainst);
+                && Objects.equals(pointsFor, season.pointsFor) && Objects.equals(pointsAgainst, season.pointsAgainst)
+                && Objects.equals(version, season.version);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, year, rank, playoffRank, teamName, record, pct, streak, pointsFor, pointsAgainst);
+        return Objects.hash(id, year, rank, playoffRank, teamName, record, pct, streak, pointsFor, pointsAgainst, version);
     }
 }
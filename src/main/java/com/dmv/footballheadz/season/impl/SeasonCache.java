@@ -0,0 +1,114 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of seasons by id. Misses are cached as well (for a shorter time)
+ * so repeated lookups of unknown ids do not reach DynamoDB. Entries are copies, callers are
+ * free to modify what they get back.
+ */
+@Component
+@ConditionalOnProperty(name = "season.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SeasonCache implements MeterBinder {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Cache<String, Optional<Season>> cache;
+
+    public SeasonCache(@Value("${season.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${season.cache.ttl-seconds:60}") long ttlSeconds,
+                       @Value("${season.cache.negative-ttl-seconds:5}") long negativeTtlSeconds) {
+        log.info("Using season cache of {} entries, ttl {}s, negative ttl {}s", maximumSize, ttlSeconds, negativeTtlSeconds);
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        long negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<Season>>() {
+                    @Override
+                    public long expireAfterCreate(String id, Optional<Season> season, long currentTime) {
+                        return season.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, Optional<Season> season, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, season, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, Optional<Season> season, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Season> get(String id, Function<String, Optional<Season>> loader) {
+        return cache.get(id, key -> loader.apply(key).map(Season::new)).map(Season::new);
+    }
+
+    /**
+     * @return the cached entries among the given ids, without loading the rest
+     */
+    public Map<String, Optional<Season>> getAllPresent(Collection<String> ids) {
+        Map<String, Optional<Season>> present = new HashMap<>();
+        cache.getAllPresent(ids).forEach((id, season) -> present.put(id, season.map(Season::new)));
+        return present;
+    }
+
+    public void put(Season season) {
+        cache.put(season.getId(), Optional.of(new Season(season)));
+    }
+
+    /**
+     * Caches a season just read, unless a write or another read cached a newer version of it or
+     * its absence meanwhile. A read that finishes after a concurrent write would otherwise put back
+     * the season as it was before the write.
+     */
+    public void putRead(Season season) {
+        cache.asMap().merge(season.getId(), Optional.of(new Season(season)),
+                (cached, read) -> cached.isPresent() && isOlder(cached.get(), read.get()) ? read : cached);
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static boolean isOlder(Season cached, Season read) {
+        return read.getVersion() != null && (cached.getVersion() == null || cached.getVersion() < read.getVersion());
+    }
+
+    /**
+     * Publishes hits, misses, evictions and size as {@code cache.*} meters tagged cache=season.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "season");
+    }
+}
@@ -0,0 +1,42 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.http.HttpStatus.OK;
+
+@RestController
+@RequestMapping("/v1")
+@ConditionalOnProperty(name = "season.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SeasonCacheController {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private SeasonCache cache;
+
+    @RequestMapping(path = "/cache/season", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> stats() {
+        log.trace("Entering stats()");
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return new ResponseEntity<>(result, OK);
+    }
+}
@@ -1,21 +1,48 @@
 package com.dmv.footballheadz.season.impl;
 
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.PreconditionFailedException;
+import com.dmv.footballheadz.season.VersionConflictException;
+import com.dmv.footballheadz.util.SeasonUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static org.springframework.http.HttpStatus.*;
 
-@CrossOrigin
+@CrossOrigin(exposedHeaders = {SeasonController.NEXT_PAGE_HEADER, HttpHeaders.ETAG})
 @RestController
 @RequestMapping("/v1")
 public class SeasonController {
 
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page-Token";
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired
@@ -24,34 +51,130 @@ public class SeasonController {
     @Autowired
     private SeasonValidation seasonValidation;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SeasonImporter importer;
+
+    @Autowired
+    private SeasonEtags etags;
+
     @RequestMapping(path = "/season", method = RequestMethod.GET)
-    public ResponseEntity<List<Season>> list() {
+    public ResponseEntity<List<Season>> list(@RequestParam(value = "limit", required = false) Integer limit,
+                                             @RequestParam(value = "next", required = false) String next,
+                                             @RequestParam(value = "fields", required = false) String fields) {
         log.trace("Entering list()");
-        List<Season> seasons = service.list();
+        if (fields != null && !seasonValidation.isValidFields(fields)) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        Set<String> projection = SeasonFields.parse(fields);
+        if (limit != null || next != null) {
+            return page(limit, next, (pageSize, token) -> service.list(pageSize, token, projection));
+        }
+        List<Season> seasons = service.list(projection);
         if (seasons.isEmpty()) {
             return new ResponseEntity<>(NO_CONTENT);
         }
         return new ResponseEntity<>(seasons, OK);
     }
 
+    @RequestMapping(path = "/season", method = RequestMethod.GET, params = "ids")
+    public ResponseEntity<List<Season>> readBatch(@RequestParam(value = "ids") List<String> ids) {
+        log.trace("Entering readBatch() with {}", ids);
+        if (ids.isEmpty() || ids.size() > SeasonUtils.MAX_BATCH_SIZE
+                || ids.stream().anyMatch(id -> id == null || id.trim().isEmpty())) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        List<Season> seasons = service.batchRead(ids);
+        if (seasons.isEmpty()) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        return new ResponseEntity<>(seasons, OK);
+    }
+
+    @RequestMapping(path = "/season/batch-get", method = RequestMethod.POST)
+    public ResponseEntity<List<Season>> readBatchBody(@RequestBody List<String> ids) {
+        return readBatch(ids);
+    }
+
+    @RequestMapping(path = "/season", method = RequestMethod.GET, produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listStream() {
+        log.trace("Entering listStream()");
+        Iterable<Season> seasons = service.listLazily();
+        StreamingResponseBody body = out -> writeNdjson(seasons, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Whole listings carry an ETag; a matching If-None-Match gets 304 without reading the year.
+     * Listings of selected fields have an ETag of their own, which is not remembered.
+     */
     @RequestMapping(path = "/season/", method = RequestMethod.GET)
-    public ResponseEntity<List<Season>> listOfYear(@RequestParam(value="year") String year) {
+    public ResponseEntity<List<Season>> listOfYear(@RequestParam(value="year") String year,
+                                                   @RequestParam(value = "limit", required = false) Integer limit,
+                                                   @RequestParam(value = "next", required = false) String next,
+                                                   @RequestParam(value = "fields", required = false) String fields,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.trace("Entering listOfYear() for {}", year);
         if (!seasonValidation.isValidYear(year)){
             return new ResponseEntity<>(BAD_REQUEST);
         }
-        List<Season> seasons = service.listByYear(year);
+        if (fields != null && !seasonValidation.isValidFields(fields)) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        Set<String> projection = SeasonFields.parse(fields);
+        if (limit != null || next != null) {
+            return page(limit, next, (pageSize, token) -> service.listByYear(year, pageSize, token, projection));
+        }
+        if (projection != null) {
+            List<Season> seasons = new ArrayList<>();
+            service.listByYear(year, projection).forEach(season -> seasons.add(SeasonFields.project(season, projection)));
+            if (seasons.isEmpty()) {
+                return new ResponseEntity<>(NO_CONTENT);
+            }
+            return withEtag(seasons, etags.etag(seasons), ifNoneMatch);
+        }
+        String knownEtag = etags.ofYear(year);
+        if (SeasonEtags.matches(ifNoneMatch, knownEtag)) {
+            return notModified(knownEtag);
+        }
+        long generation = etags.generation();
+        List<Season> seasons = service.listByYear(year, null);
         if (seasons.isEmpty()) {
             return new ResponseEntity<>(NO_CONTENT);
         }
-        return new ResponseEntity<>(seasons, OK);
+        return withEtag(seasons, etags.registerYear(year, seasons, generation), ifNoneMatch);
     }
 
+    /**
+     * Responds with the season's ETag; a matching If-None-Match gets 304 without reading the season.
+     * A selection of fields has an ETag of its own, which is not remembered.
+     */
     @RequestMapping(path = "/season/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Season> read(@PathVariable String id) {
+    public ResponseEntity<Season> read(@PathVariable String id,
+                                       @RequestParam(value = "fields", required = false) String fields,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.trace("Entering read() with {}", id);
-        return service.read(id)
-                .map(season -> new ResponseEntity<>(season, OK))
+        if (fields != null && !seasonValidation.isValidFields(fields)) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        Set<String> projection = SeasonFields.parse(fields);
+        if (projection != null) {
+            return service.read(id, projection)
+                    .map(season -> SeasonFields.project(season, projection))
+                    .map(season -> withEtag(season, etags.etag(season), ifNoneMatch))
+                    .orElse(new ResponseEntity<>(NOT_FOUND));
+        }
+        String knownEtag = etags.ofSeason(id);
+        if (SeasonEtags.matches(ifNoneMatch, knownEtag)) {
+            return notModified(knownEtag);
+        }
+        long generation = etags.generation();
+        return service.read(id, null)
+                .map(season -> withEtag(season, etags.register(season, generation), ifNoneMatch))
                 .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
@@ -63,20 +186,77 @@ public class SeasonController {
                 .orElse(new ResponseEntity<>(CONFLICT));
     }
 
+    @RequestMapping(path = "/season/batch", method = RequestMethod.POST)
+    public ResponseEntity<List<BatchItemResult>> createBatch(@RequestBody List<Season> seasons) {
+        log.trace("Entering createBatch() with {} seasons", seasons.size());
+        if (seasons.isEmpty() || seasons.size() > SeasonUtils.MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        List<BatchItemResult> results = new ArrayList<>(seasons.size());
+        List<Season> valid = new ArrayList<>(seasons.size());
+        Set<String> ids = new HashSet<>();
+        for (Season season : seasons) {
+            String invalidReason = batchItemError(season, ids);
+            if (invalidReason != null) {
+                results.add(new BatchItemResult(season == null ? null : season.getId(),
+                        BatchItemResult.Status.INVALID, invalidReason));
+            } else {
+                valid.add(season);
+                results.add(null);
+            }
+        }
+        Set<String> failed = new HashSet<>();
+        if (!valid.isEmpty()) {
+            service.batchSave(valid).forEach(season -> failed.add(season.getId()));
+        }
+        boolean allSaved = true;
+        for (int i = 0, v = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                allSaved = false;
+                continue;
+            }
+            String id = valid.get(v++).getId();
+            if (failed.contains(id)) {
+                allSaved = false;
+                results.set(i, new BatchItemResult(id, BatchItemResult.Status.FAILED, "Write not processed, retry later"));
+            } else {
+                results.set(i, new BatchItemResult(id, BatchItemResult.Status.SAVED, null));
+            }
+        }
+        return new ResponseEntity<>(results, allSaved ? OK : MULTI_STATUS);
+    }
+
+    @RequestMapping(path = "/season/import", method = RequestMethod.POST, consumes = "text/csv")
+    public ResponseEntity<ImportReport> importCsv(InputStream body) throws IOException {
+        log.trace("Entering importCsv()");
+        return new ResponseEntity<>(importer.importSeasons(body, SeasonImporter.Format.CSV), OK);
+    }
+
+    @RequestMapping(path = "/season/import", method = RequestMethod.POST, consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReport> importNdjson(InputStream body) throws IOException {
+        log.trace("Entering importNdjson()");
+        return new ResponseEntity<>(importer.importSeasons(body, SeasonImporter.Format.NDJSON), OK);
+    }
+
+    /**
+     * Replaces the season if it matches If-Match and the version in the body, when given; either
+     * mismatch answers 412. Losing every attempt to concurrent writes answers 409.
+     */
     @RequestMapping(path = "/season/{id}", method = RequestMethod.PUT)
-    public ResponseEntity<Season> put(@PathVariable String id, @RequestBody Season season) {
+    public ResponseEntity<Season> put(@PathVariable String id, @RequestBody Season season,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.trace("Entering put() with {}, {}", id, season);
-        return service.replace(season.withId(id))
-                .map(newSeasonData -> new ResponseEntity<>(newSeasonData, OK))
-                .orElse(new ResponseEntity<>(NOT_FOUND));
+        return conditionalWrite(ifMatch, precondition -> service.replace(season.withId(id), precondition));
     }
 
+    /**
+     * Updates the season under the same conditions as {@link #put}.
+     */
     @RequestMapping(path = "/season/{id}", method = RequestMethod.PATCH)
-    public ResponseEntity<Season> patch(@PathVariable String id, @RequestBody Season season) {
+    public ResponseEntity<Season> patch(@PathVariable String id, @RequestBody Season season,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.trace("Entering patch() with {}, {}", id, season);
-        return service.update(season.withId(id))
-                .map(newSeasonData -> new ResponseEntity<>(newSeasonData, OK))
-                .orElse(new ResponseEntity<>(NOT_FOUND));
+        return conditionalWrite(ifMatch, precondition -> service.update(season.withId(id), precondition));
     }
 
     @RequestMapping(path = "/season/{id}", method = RequestMethod.DELETE)
@@ -86,4 +266,83 @@ public class SeasonController {
                 new ResponseEntity<>(NO_CONTENT) :
                 new ResponseEntity<>(NOT_FOUND);
     }
+
+    private String batchItemError(Season season, Set<String> ids) {
+        String invalidReason = seasonValidation.invalidReason(season);
+        if (invalidReason == null && !ids.add(season.getId())) {
+            return "Duplicate id in batch";
+        }
+        return invalidReason;
+    }
+
+    private static <T> ResponseEntity<T> withEtag(T body, String etag, String ifNoneMatch) {
+        if (SeasonEtags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return new ResponseEntity<>(body, headers, OK);
+    }
+
+    /**
+     * A missing season fails If-Match with 412, as there is no current representation to match.
+     */
+    private ResponseEntity<Season> conditionalWrite(String ifMatch, Function<Predicate<Season>, Optional<Season>> write) {
+        Predicate<Season> precondition = ifMatch == null ? null
+                : stored -> SeasonEtags.matchesStrongly(ifMatch, etags.etag(stored));
+        try {
+            return write.apply(precondition)
+                    .map(written -> withEtag(written, etags.etag(written), null))
+                    .orElse(new ResponseEntity<>(ifMatch == null ? NOT_FOUND : PRECONDITION_FAILED));
+        } catch (PreconditionFailedException e) {
+            return new ResponseEntity<>(PRECONDITION_FAILED);
+        } catch (VersionConflictException e) {
+            return new ResponseEntity<>(CONFLICT);
+        }
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return new ResponseEntity<>(headers, NOT_MODIFIED);
+    }
+
+    private ResponseEntity<List<Season>> page(Integer limit, String next,
+                                              BiFunction<Integer, String, Page<Season>> loader) {
+        int pageSize = limit == null ? SeasonUtils.DEFAULT_PAGE_SIZE : limit;
+        if (!seasonValidation.isValidLimit(pageSize)) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        Page<Season> page;
+        try {
+            page = loader.apply(pageSize, next);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected page token {}", next);
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        if (page.getItems().isEmpty() && !page.hasNext()) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.set(NEXT_PAGE_HEADER, page.getNextToken());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, OK);
+    }
+
+    private void writeNdjson(Iterable<Season> seasons, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Season.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int written = 0;
+            for (Season season : seasons) {
+                writer.writeValue(generator, season);
+                generator.writeRaw('\n');
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            log.debug("Streamed {} seasons", written);
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for seasons and year listings, and a registry of the ETags last handed out so that
+ * a matching If-None-Match can be answered with 304 before reading DynamoDB. An ETag is the MD5 of
+ * the JSON representation, so equal content always gets the same validator, on any instance.
+ * <p>
+ * Writes through the services invalidate the season's entry and all year listings. A read that
+ * overlapped a write may have loaded the old content, so its ETag is only registered when no
+ * invalidation happened since the read started; the check and the registration hold the lock
+ * invalidation takes. Writes by other instances are not seen here; entries expire after
+ * {@code season.etag.ttl-seconds}, the same bound the season cache gives.
+ */
+@Component
+public class SeasonEtags {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, String> seasons;
+
+    private final Cache<String, String> years;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public SeasonEtags(ObjectMapper objectMapper,
+                       @Value("${season.etag.maximum-size:10000}") long maximumSize,
+                       @Value("${season.etag.ttl-seconds:60}") long ttlSeconds) {
+        log.info("Registering ETags for {} entries, ttl {}s", maximumSize, ttlSeconds);
+        this.objectMapper = objectMapper;
+        this.seasons = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        this.years = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * @return the current generation, to pass to {@link #register} after reading
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @return the registered ETag of the season, or null if unknown
+     */
+    public String ofSeason(String id) {
+        return seasons.getIfPresent(id);
+    }
+
+    /**
+     * @return the registered ETag of the year listing, or null if unknown
+     */
+    public String ofYear(String year) {
+        return years.getIfPresent(year);
+    }
+
+    /**
+     * @param generation the generation taken before the season was read
+     * @return the season's ETag
+     */
+    public String register(Season season, long generation) {
+        String etag = etag(season);
+        synchronized (this) {
+            if (this.generation.get() == generation) {
+                seasons.put(season.getId(), etag);
+            }
+        }
+        return etag;
+    }
+
+    /**
+     * @param generation the generation taken before the listing was read
+     * @return the listing's ETag
+     */
+    public String registerYear(String year, List<Season> listing, long generation) {
+        String etag = etag(listing);
+        synchronized (this) {
+            if (this.generation.get() == generation) {
+                years.put(year, etag);
+            }
+        }
+        return etag;
+    }
+
+    /**
+     * Forgets the season's ETag and those of all year listings, since a write can move a season
+     * from one year to another. Holds the same lock as registering, so a read that checked the
+     * generation before it moved cannot put its ETag back after the entries were forgotten.
+     */
+    public synchronized void invalidate(String id) {
+        generation.incrementAndGet();
+        seasons.invalidate(id);
+        years.invalidateAll();
+    }
+
+    /**
+     * Weak comparison as required for If-None-Match: W/ prefixes are ignored.
+     *
+     * @param ifNoneMatch the If-None-Match header, a list of ETags or *
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaqueEtag = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || opaque(trimmed).equals(opaqueEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strong comparison as required for If-Match: weak ETags never match.
+     *
+     * @param ifMatch the If-Match header, a list of ETags or *
+     */
+    public static boolean matchesStrongly(String ifMatch, String etag) {
+        if (ifMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * @return the ETag of any representation, without remembering it
+     */
+    public String etag(Object representation) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(representation)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to compute ETag", e);
+        }
+    }
+}
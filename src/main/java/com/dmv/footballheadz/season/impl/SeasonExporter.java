@@ -0,0 +1,244 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.IRepository;
+import com.dmv.footballheadz.season.Page;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the Season table to {@code season.ndjson.gz} with a parallel scan. Each segment is written
+ * to its own file as a sequence of gzip members, one per checkpoint: after every
+ * {@code season.export.pages-per-checkpoint} pages the member is finished, the file forced to disk
+ * and the file position plus the scan position recorded next to it. An interrupted export resumes
+ * every unfinished segment from its last checkpoint. Once all segments are done their files are
+ * concatenated, which is still a valid gzip file.
+ */
+@Component
+public class SeasonExporter {
+
+    static final String EXPORT_FILE = "season.ndjson.gz";
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private IRepository<Season> repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("scanExecutor")
+    private ExecutorService scanExecutor;
+
+    @Value("${season.export.segments:4}")
+    private int segments;
+
+    @Value("${season.export.page-size:0}")
+    private int pageSize;
+
+    @Value("${season.export.pages-per-checkpoint:10}")
+    private int pagesPerCheckpoint;
+
+    /**
+     * @return the number of seasons in the export
+     */
+    public long export(Path directory) throws IOException {
+        log.trace("Entering export() with {}", directory);
+        Files.createDirectories(directory);
+        List<Future<Long>> tasks = new ArrayList<>(segments);
+        for (int segment = 0; segment < segments; segment++) {
+            int current = segment;
+            tasks.add(scanExecutor.submit(() -> exportSegment(directory, current)));
+        }
+        long items = 0;
+        try {
+            for (Future<Long> task : tasks) {
+                items += task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.forEach(task -> task.cancel(true));
+            throw new IOException("Interrupted during export, resume to continue", e);
+        } catch (ExecutionException e) {
+            // Segments already running finish and checkpoint, so a resume does not read them again
+            tasks.forEach(task -> task.cancel(false));
+            awaitQuietly(tasks);
+            throw new IOException("Export failed, resume to continue", e.getCause());
+        }
+        concatenate(directory);
+        log.info("Exported {} seasons to {}", items, directory.resolve(EXPORT_FILE));
+        return items;
+    }
+
+    private static void awaitQuietly(List<Future<Long>> tasks) {
+        for (Future<Long> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException ignored) {
+                // the first failure is the one reported
+            }
+        }
+    }
+
+    private long exportSegment(Path directory, int segment) throws IOException {
+        Path file = directory.resolve(segmentName(segment) + ".ndjson.gz");
+        Path checkpointFile = directory.resolve(segmentName(segment) + ".checkpoint");
+        Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+        if (checkpoint.done) {
+            return checkpoint.items;
+        }
+        if (checkpoint.position > 0) {
+            log.info("Resuming export segment {} at {} seasons", segment, checkpoint.items);
+        }
+        ObjectWriter writer = objectMapper.writerFor(Season.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(checkpoint.position);
+            channel.position(checkpoint.position);
+            OutputStream channelOut = new KeepOpenOutputStream(Channels.newOutputStream(channel));
+            String token = checkpoint.token;
+            long items = checkpoint.items;
+            do {
+                try (OutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(channelOut, BUFFER_SIZE), BUFFER_SIZE);
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip)) {
+                    int pages = 0;
+                    do {
+                        Page<Season> page = repository.readSegmentPage(segment, segments, pageSize, token);
+                        for (Season season : page.getItems()) {
+                            writer.writeValue(generator, season);
+                            generator.writeRaw('\n');
+                        }
+                        items += page.getItems().size();
+                        token = page.getNextToken();
+                    } while (token != null && ++pages < pagesPerCheckpoint);
+                }
+                channel.force(false);
+                checkpoint = new Checkpoint(channel.position(), token, items, token == null);
+                checkpoint.save(checkpointFile);
+            } while (token != null);
+            log.debug("Exported segment {} with {} seasons", segment, items);
+            return items;
+        }
+    }
+
+    private void concatenate(Path directory) throws IOException {
+        Path target = directory.resolve(EXPORT_FILE);
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int segment = 0; segment < segments; segment++) {
+                try (FileChannel in = FileChannel.open(directory.resolve(segmentName(segment) + ".ndjson.gz"))) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+            out.force(false);
+        }
+        for (int segment = 0; segment < segments; segment++) {
+            Files.delete(directory.resolve(segmentName(segment) + ".ndjson.gz"));
+            Files.delete(directory.resolve(segmentName(segment) + ".checkpoint"));
+        }
+    }
+
+    private String segmentName(int segment) {
+        return "season-" + segment + "-of-" + segments;
+    }
+
+    static class Checkpoint {
+
+        final long position;
+        final String token;
+        final long items;
+        final boolean done;
+
+        Checkpoint(long position, String token, long items, boolean done) {
+            this.position = position;
+            this.token = token;
+            this.items = items;
+            this.done = done;
+        }
+
+        static Checkpoint load(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return new Checkpoint(0, null, 0, false);
+            }
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            return new Checkpoint(Long.parseLong(properties.getProperty("position")),
+                    properties.getProperty("token"),
+                    Long.parseLong(properties.getProperty("items")),
+                    Boolean.parseBoolean(properties.getProperty("done")));
+        }
+
+        void save(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("position", Long.toString(position));
+            properties.setProperty("items", Long.toString(items));
+            properties.setProperty("done", Boolean.toString(done));
+            if (token != null) {
+                properties.setProperty("token", token);
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, null);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Lets each gzip member be closed, releasing its deflater, without closing the channel below.
+     */
+    private static class KeepOpenOutputStream extends FilterOutputStream {
+
+        KeepOpenOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
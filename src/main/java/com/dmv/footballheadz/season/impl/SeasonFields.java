@@ -0,0 +1,111 @@
+package com.dmv.footballheadz.season.impl;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The Season fields a client can select with {@code ?fields=}, by JSON property name, with the
+ * DynamoDB attribute each one is stored in. The id is always selected.
+ */
+public final class SeasonFields {
+
+    /**
+     * Id of the Jackson property filter applied to seasons; see JacksonConfig.
+     */
+    public static final String FILTER = "seasonFields";
+
+    private static final Map<String, Field<?>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        add("id", "Id", Season::getId, Season::setId);
+        add("year", "Year", Season::getYear, Season::setYear);
+        add("rank", "Rank", Season::getRank, Season::setRank);
+        add("playoffRank", "PlayoffRank", Season::getPlayoffRank, Season::setPlayoffRank);
+        add("teamName", "TeamName", Season::getTeamName, Season::setTeamName);
+        add("record", "Record", Season::getRecord, Season::setRecord);
+        add("pct", "Pct", Season::getPct, Season::setPct);
+        add("streak", "Streak", Season::getStreak, Season::setStreak);
+        add("pointsFor", "PointsFor", Season::getPointsFor, Season::setPointsFor);
+        add("pointsAgainst", "PointsAgainst", Season::getPointsAgainst, Season::setPointsAgainst);
+        add("version", "Version", Season::getVersion, Season::setVersion);
+    }
+
+    private SeasonFields() { }
+
+    /**
+     * @param fields comma separated field names
+     * @return the selected field names including id, or null when fields is blank to select all
+     * @throws IllegalArgumentException for unknown field names
+     */
+    public static Set<String> parse(String fields) {
+        if (StringUtils.isBlank(fields)) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field " + name);
+            }
+            selected.add(name);
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    /**
+     * Builds a ProjectionExpression over the attributes of the given fields, adding a
+     * {@code #Attribute} name placeholder for each to the given map.
+     */
+    static String projectionExpression(Set<String> fields, Map<String, String> expressionAttributeNames) {
+        StringJoiner projection = new StringJoiner(", ");
+        for (String field : fields) {
+            String attribute = FIELDS.get(field).attribute;
+            expressionAttributeNames.put("#" + attribute, attribute);
+            projection.add("#" + attribute);
+        }
+        return projection.toString();
+    }
+
+    /**
+     * @return a copy of the season with only the given fields set, or the season itself when
+     * fields is null
+     */
+    static Season project(Season season, Set<String> fields) {
+        if (fields == null) {
+            return season;
+        }
+        Season projected = new Season();
+        fields.forEach(field -> FIELDS.get(field).copy(season, projected));
+        return projected;
+    }
+
+    private static <V> void add(String name, String attribute, Function<Season, V> getter, BiConsumer<Season, V> setter) {
+        FIELDS.put(name, new Field<>(attribute, getter, setter));
+    }
+
+    private static final class Field<V> {
+
+        final String attribute;
+        final Function<Season, V> getter;
+        final BiConsumer<Season, V> setter;
+
+        Field(String attribute, Function<Season, V> getter, BiConsumer<Season, V> setter) {
+            this.attribute = attribute;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        void copy(Season from, Season to) {
+            setter.accept(to, getter.apply(from));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Set;
+
+/**
+ * Writes only the selected fields of seasons when the request has a valid {@code fields}
+ * parameter. Invalid selections are rejected by the controller before a body is written.
+ */
+@ControllerAdvice(assignableTypes = SeasonController.class)
+public class SeasonFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        Set<String> fields;
+        try {
+            fields = SeasonFields.parse(((ServletServerHttpRequest) request).getServletRequest().getParameter("fields"));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        if (fields != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(SeasonFields.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+    }
+}
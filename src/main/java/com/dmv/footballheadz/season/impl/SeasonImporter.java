@@ -0,0 +1,191 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams seasons from CSV or NDJSON into the table. Rows are parsed one line at a time, validated,
+ * and grouped into batched writes. At most {@code season.import.max-in-flight} groups are written at
+ * once; when all slots are taken, parsing waits, so memory stays bounded whatever the input size.
+ * <p>
+ * The last row for an id wins. Within a group a later row replaces the earlier one; a group holding
+ * an id that a group still in flight writes too is only written after that one, so groups are
+ * written concurrently only when they share no id.
+ */
+@Component
+public class SeasonImporter {
+
+    public enum Format { CSV, NDJSON }
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private SeasonService service;
+
+    @Autowired
+    private SeasonValidation seasonValidation;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("importExecutor")
+    private ExecutorService importExecutor;
+
+    @Value("${season.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${season.import.max-in-flight:2}")
+    private int maxInFlight;
+
+    public ImportReport importSeasons(InputStream in, Format format) throws IOException {
+        log.trace("Entering importSeasons() with {}", format);
+        ImportReport report = new ImportReport();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Map<String, CompletableFuture<Void>> writing = new ConcurrentHashMap<>();
+        ObjectReader seasonReader = objectMapper.readerFor(Season.class);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        List<String> header = null;
+        Map<String, Season> group = new LinkedHashMap<>();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = parseCsvLine(line);
+                continue;
+            }
+            report.rowRead();
+            Season season;
+            try {
+                season = format == Format.CSV
+                        ? parseCsvRow(header, line)
+                        : seasonReader.readValue(line);
+            } catch (IOException | IllegalArgumentException e) {
+                report.reject(lineNumber, null, "Malformed row");
+                continue;
+            }
+            String invalidReason = seasonValidation.invalidReason(season);
+            if (invalidReason != null) {
+                report.reject(lineNumber, season == null ? null : season.getId(), invalidReason);
+                continue;
+            }
+            // a batch may not carry the same key twice, the last row for an id wins
+            group.put(season.getId(), season);
+            if (group.size() >= batchSize) {
+                write(new ArrayList<>(group.values()), inFlight, writing, report);
+                group.clear();
+            }
+        }
+        if (!group.isEmpty()) {
+            write(new ArrayList<>(group.values()), inFlight, writing, report);
+        }
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+        report.finish();
+        log.info("Import finished: {}", report);
+        return report;
+    }
+
+    /**
+     * @param writing the groups in flight by the ids they write, which a group sharing an id waits for
+     */
+    private void write(List<Season> seasons, Semaphore inFlight, Map<String, CompletableFuture<Void>> writing,
+                       ImportReport report) {
+        inFlight.acquireUninterruptibly();
+        Set<CompletableFuture<Void>> earlier = new HashSet<>();
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        for (Season season : seasons) {
+            CompletableFuture<Void> previous = writing.put(season.getId(), written);
+            if (previous != null) {
+                earlier.add(previous);
+            }
+        }
+        CompletableFuture.allOf(earlier.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> {
+                    List<Season> failed = service.batchSave(seasons);
+                    report.saved(seasons.size() - failed.size());
+                    report.failed(failed);
+                }, importExecutor)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.warn("Import batch of {} seasons failed", seasons.size(), e);
+                        report.failed(seasons);
+                    }
+                    seasons.forEach(season -> writing.remove(season.getId(), written));
+                    inFlight.release();
+                    written.complete(null);
+                });
+    }
+
+    private Season parseCsvRow(List<String> header, String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                fields.put(header.get(i), values.get(i));
+            }
+        }
+        return objectMapper.convertValue(fields, Season.class);
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+}
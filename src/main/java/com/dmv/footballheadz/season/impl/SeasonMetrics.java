@@ -0,0 +1,35 @@
+package com.dmv.footballheadz.season.impl;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Names of the season meters. Timers for single operations come from {@code @Timed}; the meters
+ * here are recorded where the outcome is known.
+ */
+final class SeasonMetrics {
+
+    static final String REPOSITORY_TIMER = "season.repository";
+
+    static final String SERVICE_TIMER = "season.service";
+
+    static final String CONDITIONAL_CHECK_FAILURES = "season.conditional.check.failures";
+
+    static final String WRITE_RETRIES = "season.write.retries";
+
+    private SeasonMetrics() {
+    }
+
+    /**
+     * Counts a write rejected by its condition expression, tagged with the repository operation.
+     */
+    static void conditionalCheckFailed(String operation) {
+        Metrics.counter(CONDITIONAL_CHECK_FAILURES, "operation", operation).increment();
+    }
+
+    /**
+     * Counts a versioned write started over after losing to a concurrent write.
+     */
+    static void writeRetried(String operation) {
+        Metrics.counter(WRITE_RETRIES, "operation", operation).increment();
+    }
+}
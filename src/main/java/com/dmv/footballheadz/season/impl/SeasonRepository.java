@@ -1,56 +1,783 @@
 package com.dmv.footballheadz.season.impl;
 
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedList;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.dmv.footballheadz.season.IRepository;
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.VersionConflictException;
+import com.dmv.footballheadz.util.PageTokens;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
+@Profile("!in-memory")
 public class SeasonRepository implements IRepository<Season> {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    private static final int BATCH_WRITE_SIZE = 25;
+
+    private static final int BATCH_GET_SIZE = 100;
+
+    /**
+     * Attributes of the LastEvaluatedKey of table scans, and of queries of the year index.
+     */
+    private static final Set<String> TABLE_KEY = Collections.singleton("Id");
+
+    private static final Set<String> YEAR_INDEX_KEY = new HashSet<>(Arrays.asList("Id", "Year"));
+
+    private static final DynamoDBMapperConfig ITERATION_ONLY = DynamoDBMapperConfig.builder()
+            .withPaginationLoadingStrategy(DynamoDBMapperConfig.PaginationLoadingStrategy.ITERATION_ONLY)
+            .build();
+
     @Autowired
     private DynamoDBMapper dbMapper;
 
+    @Autowired
+    private AmazonDynamoDB dynamoDB;
+
+    @Autowired(required = false)
+    private SeasonCache cache;
+
+    @Autowired(required = false)
+    private ScanRateLimiter scanLimiter;
+
+    @Autowired
+    @Qualifier("scanExecutor")
+    private ExecutorService scanExecutor;
+
+    @Autowired
+    @Qualifier("batchExecutor")
+    private ExecutorService batchExecutor;
+
+    @Value("${season.batch.max-attempts:3}")
+    private int batchMaxAttempts;
+
+    @Value("${season.batch.base-backoff-ms:50}")
+    private long batchBaseBackoffMs;
+
+    @Value("${season.scan.segments:1}")
+    private int scanSegments;
+
+    @Value("${season.scan.page-size:0}")
+    private int scanPageSize;
+
+    @Value("${season.year-index.status-refresh-seconds:30}")
+    private long yearIndexRefreshSeconds;
+
+    private volatile boolean yearIndexActive;
+
+    private final AtomicLong nextYearIndexCheck = new AtomicLong(System.nanoTime());
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> readByYear(String year) {
+        log.trace("Entering readByYear() with {}", year);
+        return readByYear(year, null);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> readByYear(String year, Set<String> fields) {
+        log.trace("Entering readByYear() with {}, {}", year, fields);
+        if (!yearIndexActive()) {
+            return readExpression(yearScan(year, fields));
+        }
+        return queryExpression(yearQuery(year, fields));
+    }
+
+    /**
+     * There is no index on the team name, so this filters a scan of the whole table.
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> readByTeam(String teamName) {
+        log.trace("Entering readByTeam() with {}", teamName);
+        Map<String, AttributeValue> eav = new HashMap<>();
+        eav.put(":val", new AttributeValue().withS(teamName));
+
+        Map<String, String> ean = new HashMap<>();
+        ean.put("#TeamName", "TeamName");
+
+        return readExpression(new DynamoDBScanExpression()
+                .withFilterExpression("#TeamName = :val")
+                .withExpressionAttributeNames(ean)
+                .withExpressionAttributeValues(eav));
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readByYearPage(String year, int limit, String token) {
+        log.trace("Entering readByYearPage() with {}, {}", year, limit);
+        return readByYearPage(year, limit, token, null);
+    }
+
     @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readByYearPage(String year, int limit, String token, Set<String> fields) {
+        log.trace("Entering readByYearPage() with {}, {}, {}", year, limit, fields);
+        if (!yearIndexActive()) {
+            DynamoDBScanExpression dynamoDBScanExpression = yearScan(year, fields)
+                    .withLimit(limit)
+                    .withExclusiveStartKey(PageTokens.decode(token, TABLE_KEY));
+            ScanResultPage<Season> page = dbMapper.scanPage(Season.class, dynamoDBScanExpression);
+            return new Page<>(page.getResults(), PageTokens.encode(page.getLastEvaluatedKey()));
+        }
+        return queryExpressionPage(yearQuery(year, fields), limit, yearToken(year, token));
+    }
+
     public List<Season> readExpression(DynamoDBScanExpression dynamoDBScanExpression) {
         log.trace("Entering readQuery()");
+        if (scanSegments > 1) {
+            return parallelScan(dynamoDBScanExpression);
+        }
+        if (scanLimiter != null) {
+            return scanSegment(dynamoDBScanExpression, null);
+        }
         PaginatedList<Season> results = dbMapper.scan(Season.class, dynamoDBScanExpression);
         results.loadAllResults();
         return results;
     }
 
+    public List<Season> queryExpression(DynamoDBQueryExpression<Season> dynamoDBQueryExpression) {
+        log.trace("Entering queryExpression()");
+        PaginatedList<Season> results = dbMapper.query(Season.class, dynamoDBQueryExpression);
+        results.loadAllResults();
+        return results;
+    }
+
     @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
     public List<Season> readAll() {
         log.trace("Entering readAll()");
+        if (scanSegments > 1) {
+            return parallelScan(new DynamoDBScanExpression());
+        }
+        if (scanLimiter != null) {
+            return scanSegment(new DynamoDBScanExpression(), null);
+        }
         PaginatedList<Season> results = dbMapper.scan(Season.class, new DynamoDBScanExpression());
         results.loadAllResults();
         return results;
     }
 
+    /**
+     * Scans only the attributes of the given fields, which cuts the response size but not the read
+     * units: a scan is charged for the full items it reads.
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> readAll(Set<String> fields) {
+        log.trace("Entering readAll() with {}", fields);
+        if (fields == null) {
+            return readAll();
+        }
+        return readExpression(projected(new DynamoDBScanExpression(), fields));
+    }
+
+    /**
+     * Scans the table one page at a time, keeping only the current page in memory. The returned
+     * iterable can be iterated once.
+     */
+    @Override
+    public Iterable<Season> readAllLazily() {
+        log.trace("Entering readAllLazily()");
+        if (scanLimiter != null) {
+            Iterator<Season> iterator = pacedScan();
+            return () -> iterator;
+        }
+        return dbMapper.scan(Season.class, new DynamoDBScanExpression(), ITERATION_ONLY);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readPage(int limit, String token) {
+        log.trace("Entering readPage() with {}", limit);
+        return readPage(limit, token, null);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readPage(int limit, String token, Set<String> fields) {
+        log.trace("Entering readPage() with {}, {}", limit, fields);
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
+                .withLimit(limit)
+                .withExclusiveStartKey(PageTokens.decode(token, TABLE_KEY));
+        if (fields != null) {
+            projected(dynamoDBScanExpression, fields);
+        }
+        ScanResultPage<Season> page = dbMapper.scanPage(Season.class, dynamoDBScanExpression);
+        return new Page<>(page.getResults(), PageTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Page<Season> readSegmentPage(int segment, int totalSegments, int limit, String token) {
+        log.trace("Entering readSegmentPage() with {} of {}", segment, totalSegments);
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
+                .withSegment(segment)
+                .withTotalSegments(totalSegments)
+                .withLimit(limit > 0 ? limit : null)
+                .withExclusiveStartKey(PageTokens.decode(token, TABLE_KEY));
+        ScanResultPage<Season> page = pacedScanPage(dynamoDBScanExpression);
+        return new Page<>(page.getResults(), PageTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    public Page<Season> queryExpressionPage(DynamoDBQueryExpression<Season> dynamoDBQueryExpression, int limit, String token) {
+        log.trace("Entering queryExpressionPage() with {}", limit);
+        Set<String> keyAttributes = Season.YEAR_INDEX.equals(dynamoDBQueryExpression.getIndexName()) ? YEAR_INDEX_KEY : TABLE_KEY;
+        dynamoDBQueryExpression
+                .withLimit(limit)
+                .withExclusiveStartKey(PageTokens.decode(token, keyAttributes));
+        QueryResultPage<Season> page = dbMapper.queryPage(Season.class, dynamoDBQueryExpression);
+        return new Page<>(page.getResults(), PageTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    /**
+     * A token of the year index carries the year it was handed out for, which must be the one
+     * queried.
+     */
+    private static String yearToken(String year, String token) {
+        Map<String, AttributeValue> startKey = PageTokens.decode(token, YEAR_INDEX_KEY);
+        if (startKey != null && !year.equals(startKey.get("Year").getS())) {
+            throw new IllegalArgumentException("Page token belongs to another year");
+        }
+        return token;
+    }
+
+    /**
+     * Whether year reads can query the year index. An index added to an existing table stays
+     * CREATING while it backfills, which can take long on a populated table, and queries fail
+     * until it is ACTIVE. Until DescribeTable shows it ACTIVE, checked at most every
+     * {@code season.year-index.status-refresh-seconds}, year reads filter a scan instead; a page
+     * token handed out meanwhile is one of the scan, so a listing that spans the switch has to
+     * start over. Once active the index stays in use.
+     */
+    private boolean yearIndexActive() {
+        if (yearIndexActive) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long due = nextYearIndexCheck.get();
+        if (now - due < 0 || !nextYearIndexCheck.compareAndSet(due, now + TimeUnit.SECONDS.toNanos(yearIndexRefreshSeconds))) {
+            return false;
+        }
+        try {
+            List<GlobalSecondaryIndexDescription> indexes = dynamoDB.describeTable(Season.TABLE_NAME)
+                    .getTable().getGlobalSecondaryIndexes();
+            yearIndexActive = indexes != null && indexes.stream().anyMatch(index ->
+                    Season.YEAR_INDEX.equals(index.getIndexName())
+                            && IndexStatus.ACTIVE.toString().equals(index.getIndexStatus())
+                            && !Boolean.TRUE.equals(index.getBackfilling()));
+        } catch (AmazonClientException e) {
+            log.warn("Unable to read the status of {}, listing by year with a scan", Season.YEAR_INDEX, e);
+            return false;
+        }
+        if (yearIndexActive) {
+            log.info("{} is active, listing by year with queries", Season.YEAR_INDEX);
+        } else {
+            log.info("{} is not active yet, listing by year with a scan", Season.YEAR_INDEX);
+        }
+        return yearIndexActive;
+    }
+
+    private DynamoDBScanExpression yearScan(String year, Set<String> fields) {
+        Map<String, AttributeValue> eav = new HashMap<>();
+        eav.put(":val", new AttributeValue().withS(year));
+
+        Map<String, String> ean = new HashMap<>();
+        ean.put("#Year", "Year");
+
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
+                .withFilterExpression("#Year = :val")
+                .withExpressionAttributeNames(ean)
+                .withExpressionAttributeValues(eav);
+        return fields == null ? dynamoDBScanExpression : projected(dynamoDBScanExpression, fields);
+    }
+
+    private DynamoDBQueryExpression<Season> yearQuery(String year, Set<String> fields) {
+        Map<String, AttributeValue> eav = new HashMap<>();
+        eav.put(":val", new AttributeValue().withS(year));
+
+        Map<String, String> ean = new HashMap<>();
+        ean.put("#Year", "Year");
+
+        return new DynamoDBQueryExpression<Season>()
+                .withIndexName(Season.YEAR_INDEX)
+                .withConsistentRead(false)
+                .withExpressionAttributeNames(ean)
+                .withKeyConditionExpression("#Year = :val")
+                .withExpressionAttributeValues(eav)
+                .withProjectionExpression(fields == null ? null : SeasonFields.projectionExpression(fields, ean));
+    }
+
+    private static DynamoDBScanExpression projected(DynamoDBScanExpression dynamoDBScanExpression, Set<String> fields) {
+        Map<String, String> ean = new HashMap<>();
+        if (dynamoDBScanExpression.getExpressionAttributeNames() != null) {
+            ean.putAll(dynamoDBScanExpression.getExpressionAttributeNames());
+        }
+        return dynamoDBScanExpression
+                .withProjectionExpression(SeasonFields.projectionExpression(fields, ean))
+                .withExpressionAttributeNames(ean);
+    }
+
     @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
     public Optional<Season> read(String name) {
         log.trace("Entering read() with {}", name);
+        if (cache == null) {
+            return load(name);
+        }
+        return cache.get(name, this::load);
+    }
+
+    /**
+     * Serves a cached season whole; on a miss GetItem returns only the attributes of the given
+     * fields, and the partial season is not cached. The item is charged in full either way, the
+     * projection saves transfer and unmarshalling.
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> read(String name, Set<String> fields) {
+        log.trace("Entering read() with {}, {}", name, fields);
+        if (fields == null) {
+            return read(name);
+        }
+        if (cache != null) {
+            Optional<Season> cached = cache.getAllPresent(Collections.singletonList(name)).get(name);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Map<String, String> ean = new HashMap<>();
+        GetItemRequest request = SeasonRequests.get(name)
+                .withProjectionExpression(SeasonFields.projectionExpression(fields, ean))
+                .withExpressionAttributeNames(ean);
+        Map<String, AttributeValue> item = dynamoDB.getItem(request).getItem();
+        if (item == null) {
+            return Optional.empty();
+        }
+        return Optional.of(dbMapper.getTableModel(Season.class).unconvert(item));
+    }
+
+    private Optional<Season> load(String name) {
         return Optional.ofNullable(dbMapper.load(Season.class, name));
     }
 
+    /**
+     * Serves what it can from the cache and loads the rest with BatchGetItem in 100 key chunks sent
+     * in parallel on the batch executor. The mapper retries UnprocessedKeys of each chunk.
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> batchRead(List<String> ids) {
+        log.trace("Entering batchRead() with {} ids", ids.size());
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<String, Optional<Season>> found = new HashMap<>();
+        if (cache != null) {
+            found.putAll(cache.getAllPresent(distinctIds));
+        }
+        List<Object> keys = new ArrayList<>();
+        for (String id : distinctIds) {
+            if (!found.containsKey(id)) {
+                keys.add(new Season().withId(id));
+            }
+        }
+        List<Future<Map<String, List<Object>>>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += BATCH_GET_SIZE) {
+            List<Object> chunk = keys.subList(from, Math.min(from + BATCH_GET_SIZE, keys.size()));
+            chunks.add(batchExecutor.submit(() -> dbMapper.batchLoad(chunk)));
+        }
+        for (Future<Map<String, List<Object>>> chunk : chunks) {
+            for (Object item : await(chunk).getOrDefault(Season.TABLE_NAME, Collections.emptyList())) {
+                Season season = (Season) item;
+                found.put(season.getId(), Optional.of(season));
+                if (cache != null) {
+                    cache.putRead(season);
+                }
+            }
+        }
+        List<Season> results = new ArrayList<>(distinctIds.size());
+        for (String id : distinctIds) {
+            found.getOrDefault(id, Optional.empty()).ifPresent(results::add);
+        }
+        return results;
+    }
+
     @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
     public void save(Season season) {
         log.trace("Entering save() with {}", season);
         dbMapper.save(season);
+        if (cache != null) {
+            cache.put(season);
+        }
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public boolean saveIfAbsent(Season season) {
+        log.trace("Entering saveIfAbsent() with {}", season);
+        DynamoDBSaveExpression ifAbsent = new DynamoDBSaveExpression()
+                .withExpectedEntry("Id", new ExpectedAttributeValue(false));
+        try {
+            dbMapper.save(season, ifAbsent);
+        } catch (ConditionalCheckFailedException e) {
+            SeasonMetrics.conditionalCheckFailed("saveIfAbsent");
+            if (cache != null) {
+                cache.invalidate(season.getId());
+            }
+            return false;
+        }
+        if (cache != null) {
+            cache.put(season);
+        }
+        return true;
+    }
+
+    /**
+     * Splits the seasons into 25 item BatchWriteItem chunks and sends them in parallel on the batch
+     * executor. Each chunk first reads the stored versions with one projected BatchGetItem, since
+     * the mapper's batch writes store whatever version the items carry. The mapper already retries
+     * UnprocessedItems of a chunk; chunks that still fail are retried here with full jitter backoff
+     * up to {@code season.batch.max-attempts} times.
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public List<Season> batchSave(List<Season> seasons) {
+        log.trace("Entering batchSave() with {} seasons", seasons.size());
+        List<Future<List<Season>>> chunks = new ArrayList<>();
+        for (int from = 0; from < seasons.size(); from += BATCH_WRITE_SIZE) {
+            List<Season> chunk = seasons.subList(from, Math.min(from + BATCH_WRITE_SIZE, seasons.size()));
+            chunks.add(batchExecutor.submit(() -> batchSaveChunk(chunk)));
+        }
+        List<Season> failed = new ArrayList<>();
+        for (Future<List<Season>> chunk : chunks) {
+            failed.addAll(await(chunk));
+        }
+        return failed;
+    }
+
+    private List<Season> batchSaveChunk(List<Season> chunk) {
+        Optional<Map<String, Long>> storedVersions = storedVersions(chunk);
+        if (!storedVersions.isPresent()) {
+            return new ArrayList<>(chunk);
+        }
+        DynamoDBMapperTableModel<Season> model = dbMapper.getTableModel(Season.class);
+        List<Season> pending = new ArrayList<>(chunk.size());
+        chunk.forEach(season -> pending.add(new Season(season)
+                .withVersion(SeasonRequests.nextVersion(storedVersions.get().get(season.getId())))));
+        Set<String> unprocessedIds = new HashSet<>();
+        for (int attempt = 1; ; attempt++) {
+            List<Season> unprocessed = new ArrayList<>();
+            for (FailedBatch failedBatch : dbMapper.batchSave(pending)) {
+                log.debug("Batch write failed on attempt {}", attempt, failedBatch.getException());
+                for (List<WriteRequest> requests : failedBatch.getUnprocessedItems().values()) {
+                    requests.forEach(request -> unprocessed.add(model.unconvert(request.getPutRequest().getItem())));
+                }
+            }
+            if (cache != null) {
+                pending.forEach(season -> cache.invalidate(season.getId()));
+            }
+            if (unprocessed.isEmpty() || attempt >= batchMaxAttempts) {
+                unprocessed.forEach(season -> unprocessedIds.add(season.getId()));
+                break;
+            }
+            pending.clear();
+            pending.addAll(unprocessed);
+            backoff(attempt);
+        }
+        List<Season> failed = new ArrayList<>();
+        for (Season season : chunk) {
+            if (unprocessedIds.contains(season.getId())) {
+                failed.add(season);
+            } else {
+                season.setVersion(SeasonRequests.nextVersion(storedVersions.get().get(season.getId())));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * @return the stored version of each season of the chunk that has one, or empty when DynamoDB
+     * left keys unprocessed after {@code season.batch.max-attempts} tries
+     */
+    private Optional<Map<String, Long>> storedVersions(List<Season> chunk) {
+        Set<String> ids = new LinkedHashSet<>();
+        chunk.forEach(season -> ids.add(season.getId()));
+        Map<String, Long> versions = new HashMap<>();
+        BatchGetItemRequest request = SeasonRequests.versions(ids);
+        for (int attempt = 1; ; attempt++) {
+            BatchGetItemResult result = dynamoDB.batchGetItem(request);
+            for (Map<String, AttributeValue> item : result.getResponses().getOrDefault(Season.TABLE_NAME, Collections.emptyList())) {
+                AttributeValue version = item.get("Version");
+                if (version != null) {
+                    versions.put(item.get("Id").getS(), Long.valueOf(version.getN()));
+                }
+            }
+            if (result.getUnprocessedKeys() == null || result.getUnprocessedKeys().isEmpty()) {
+                return Optional.of(versions);
+            }
+            if (attempt >= batchMaxAttempts) {
+                log.debug("Unable to read the stored versions of a batch after {} attempts", attempt);
+                return Optional.empty();
+            }
+            request = new BatchGetItemRequest().withRequestItems(result.getUnprocessedKeys());
+            backoff(attempt);
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = batchBaseBackoffMs << Math.min(attempt, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during batch retry backoff", e);
+        }
+    }
+
+    /**
+     * Overwrites the item with a single PutItem guarded by its version, returning ALL_OLD so the
+     * caller learns whether the item existed without a separate read.
+     */
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> replace(Season season) {
+        log.trace("Entering replace() with {}", season);
+        DynamoDBMapperTableModel<Season> model = dbMapper.getTableModel(Season.class);
+        Season next = new Season(season).withVersion(SeasonRequests.nextVersion(season.getVersion()));
+        PutItemResult result;
+        try {
+            result = dynamoDB.putItem(SeasonRequests.replace(model.convert(next), season.getVersion()));
+        } catch (ConditionalCheckFailedException e) {
+            return conditionFailed("replace", season.getId(), e);
+        }
+        season.setVersion(next.getVersion());
+        if (cache != null) {
+            cache.put(next);
+        }
+        return Optional.of(model.unconvert(result.getAttributes()));
     }
 
+    /**
+     * Sets only the attributes present on the given season with a single UpdateItem call, guarded
+     * by its version and returning ALL_NEW so no read is needed before or after.
+     */
     @Override
-    public void delete(String id) {
-        dbMapper.delete(new Season().withId(id), new DynamoDBMapperConfig(DynamoDBMapperConfig.SaveBehavior.CLOBBER));
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> update(Season season) {
+        log.trace("Entering update() with {}", season);
+        DynamoDBMapperTableModel<Season> model = dbMapper.getTableModel(Season.class);
+        Map<String, AttributeValue> attributes = SeasonRequests.updatableAttributes(model.convert(season));
+        // a patch without attributes still sets the version, so a stale one is rejected as for any other
+        UpdateItemResult result;
+        try {
+            result = dynamoDB.updateItem(SeasonRequests.update(season.getId(), attributes, season.getVersion()));
+        } catch (ConditionalCheckFailedException e) {
+            return conditionFailed("update", season.getId(), e);
+        }
+        Season updated = model.unconvert(result.getAttributes());
+        if (cache != null) {
+            cache.put(updated);
+        }
+        return Optional.of(updated);
+    }
+
+    /**
+     * DynamoDB returns the stored item when a version condition fails, and nothing when the item
+     * does not exist.
+     *
+     * @throws VersionConflictException when the item exists with another version
+     */
+    private Optional<Season> conditionFailed(String operation, String id, ConditionalCheckFailedException e) {
+        SeasonMetrics.conditionalCheckFailed(operation);
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+        if (e.getItem() != null) {
+            throw new VersionConflictException(id);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @Timed(SeasonMetrics.REPOSITORY_TIMER)
+    public Optional<Season> delete(String id) {
+        log.trace("Entering delete() with {}", id);
+        DeleteItemResult result;
+        try {
+            result = dynamoDB.deleteItem(SeasonRequests.delete(id));
+        } catch (ConditionalCheckFailedException e) {
+            SeasonMetrics.conditionalCheckFailed("delete");
+            return Optional.empty();
+        } finally {
+            if (cache != null) {
+                cache.invalidate(id);
+            }
+        }
+        return Optional.of(dbMapper.getTableModel(Season.class).unconvert(result.getAttributes()));
+    }
+
+    /**
+     * Scans the table as {@code season.scan.segments} segments on the scan executor and merges
+     * the results in segment order. Each request reads at most {@code season.scan.page-size} items
+     * so no single segment can burn through the table's read capacity in one call.
+     */
+    private List<Season> parallelScan(DynamoDBScanExpression dynamoDBScanExpression) {
+        log.trace("Entering parallelScan() with {} segments", scanSegments);
+        List<Future<List<Season>>> segments = new ArrayList<>(scanSegments);
+        for (int segment = 0; segment < scanSegments; segment++) {
+            int current = segment;
+            segments.add(scanExecutor.submit(() -> scanSegment(dynamoDBScanExpression, current)));
+        }
+        List<Season> results = new ArrayList<>();
+        try {
+            for (Future<List<Season>> segment : segments) {
+                results.addAll(await(segment));
+            }
+        } catch (RuntimeException e) {
+            segments.forEach(segment -> segment.cancel(true));
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * @param segment the segment to scan, or null to scan the whole table
+     */
+    private List<Season> scanSegment(DynamoDBScanExpression dynamoDBScanExpression, Integer segment) {
+        DynamoDBScanExpression segmentExpression = new DynamoDBScanExpression()
+                .withFilterExpression(dynamoDBScanExpression.getFilterExpression())
+                .withExpressionAttributeNames(dynamoDBScanExpression.getExpressionAttributeNames())
+                .withExpressionAttributeValues(dynamoDBScanExpression.getExpressionAttributeValues())
+                .withProjectionExpression(dynamoDBScanExpression.getProjectionExpression())
+                .withLimit(scanPageSize > 0 ? scanPageSize : null)
+                .withSegment(segment)
+                .withTotalSegments(segment != null ? scanSegments : null);
+        List<Season> results = new ArrayList<>();
+        ScanResultPage<Season> page;
+        do {
+            page = pacedScanPage(segmentExpression);
+            results.addAll(page.getResults());
+            segmentExpression.setExclusiveStartKey(page.getLastEvaluatedKey());
+        } while (page.getLastEvaluatedKey() != null);
+        log.debug("Scanned segment {} of {} with {} results", segment, scanSegments, results.size());
+        return results;
+    }
+
+    private Iterator<Season> pacedScan() {
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
+                .withLimit(scanPageSize > 0 ? scanPageSize : null);
+        return new Iterator<Season>() {
+
+            private Iterator<Season> current = Collections.emptyIterator();
+
+            private boolean lastPage;
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && !lastPage) {
+                    ScanResultPage<Season> page = pacedScanPage(dynamoDBScanExpression);
+                    current = page.getResults().iterator();
+                    dynamoDBScanExpression.setExclusiveStartKey(page.getLastEvaluatedKey());
+                    lastPage = page.getLastEvaluatedKey() == null;
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Season next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    /**
+     * Reads one scan page within the scan share of the table's read capacity. A page without a
+     * limit is limited to what the budget allows, since DynamoDB charges it only once it is read.
+     */
+    private ScanResultPage<Season> pacedScanPage(DynamoDBScanExpression dynamoDBScanExpression) {
+        if (scanLimiter == null) {
+            return dbMapper.scanPage(Season.class, dynamoDBScanExpression);
+        }
+        scanLimiter.acquire();
+        Integer limit = dynamoDBScanExpression.getLimit();
+        int pageLimit = scanLimiter.pageLimit();
+        if (limit == null && pageLimit > 0) {
+            dynamoDBScanExpression.setLimit(pageLimit);
+        }
+        ScanResultPage<Season> page;
+        try {
+            page = dbMapper.scanPage(Season.class, dynamoDBScanExpression);
+        } finally {
+            dynamoDBScanExpression.setLimit(limit);
+        }
+        scanLimiter.consume(page.getConsumedCapacity());
+        return page;
+    }
+
+    private static <R> R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for DynamoDB", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("DynamoDB task failed", e.getCause());
+        }
     }
 }
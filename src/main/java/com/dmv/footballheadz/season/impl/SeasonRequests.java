@@ -0,0 +1,140 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnValuesOnConditionCheckFailure;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Builds the single item requests shared by the blocking and the async repository so both send
+ * exactly the same conditions and return values to DynamoDB.
+ * <p>
+ * Replace and update are conditional on the stored Version, the way DynamoDBMapper checks a
+ * {@code @DynamoDBVersionAttribute} on save, and write the next version. When the condition fails
+ * DynamoDB returns the stored item, so a version conflict can be told apart from a missing item
+ * without another read.
+ */
+final class SeasonRequests {
+
+    private SeasonRequests() {
+    }
+
+    static Map<String, AttributeValue> key(String id) {
+        return Collections.singletonMap("Id", new AttributeValue().withS(id));
+    }
+
+    static GetItemRequest get(String id) {
+        return new GetItemRequest()
+                .withTableName(Season.TABLE_NAME)
+                .withKey(key(id));
+    }
+
+    /**
+     * @return a request for just the Id and Version of the items with the given distinct ids
+     */
+    static BatchGetItemRequest versions(Collection<String> ids) {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>(ids.size());
+        ids.forEach(id -> keys.add(key(id)));
+        return new BatchGetItemRequest()
+                .withRequestItems(Collections.singletonMap(Season.TABLE_NAME, new KeysAndAttributes()
+                        .withKeys(keys)
+                        .withProjectionExpression("Id, #Version")
+                        .withExpressionAttributeNames(Collections.singletonMap("#Version", "Version"))));
+    }
+
+    static PutItemRequest putIfAbsent(Map<String, AttributeValue> item) {
+        return new PutItemRequest()
+                .withTableName(Season.TABLE_NAME)
+                .withItem(item)
+                .withConditionExpression("attribute_not_exists(Id)");
+    }
+
+    /**
+     * @param item the item carrying its next version
+     * @param expectedVersion the version the stored item must have, null for an unversioned item
+     */
+    static PutItemRequest replace(Map<String, AttributeValue> item, Long expectedVersion) {
+        Map<String, String> ean = new HashMap<>();
+        Map<String, AttributeValue> eav = new HashMap<>();
+        return new PutItemRequest()
+                .withTableName(Season.TABLE_NAME)
+                .withItem(item)
+                .withConditionExpression(versionCondition(expectedVersion, ean, eav))
+                .withExpressionAttributeNames(ean)
+                .withExpressionAttributeValues(eav.isEmpty() ? null : eav)
+                .withReturnValues(ReturnValue.ALL_OLD)
+                .withReturnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD);
+    }
+
+    static long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
+
+    /**
+     * @return the attributes of the converted item a partial update should set, without the key,
+     * the version and empty strings
+     */
+    static Map<String, AttributeValue> updatableAttributes(Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> attributes = new HashMap<>(item);
+        attributes.remove("Id");
+        attributes.remove("Version");
+        attributes.values().removeIf(value -> "".equals(value.getS()));
+        return attributes;
+    }
+
+    /**
+     * @param attributes the attributes to set, possibly none, in which case only the version is
+     * @param expectedVersion the version the stored item must have, null for an unversioned item
+     */
+    static UpdateItemRequest update(String id, Map<String, AttributeValue> attributes, Long expectedVersion) {
+        Map<String, String> ean = new HashMap<>();
+        Map<String, AttributeValue> eav = new HashMap<>();
+        StringJoiner updateExpression = new StringJoiner(", ", "SET ", "");
+        attributes.forEach((name, value) -> {
+            ean.put("#" + name, name);
+            eav.put(":" + name, value);
+            updateExpression.add("#" + name + " = :" + name);
+        });
+        eav.put(":Version", new AttributeValue().withN(Long.toString(nextVersion(expectedVersion))));
+        updateExpression.add("#Version = :Version");
+        return new UpdateItemRequest()
+                .withTableName(Season.TABLE_NAME)
+                .withKey(key(id))
+                .withUpdateExpression(updateExpression.toString())
+                .withConditionExpression(versionCondition(expectedVersion, ean, eav))
+                .withExpressionAttributeNames(ean)
+                .withExpressionAttributeValues(eav)
+                .withReturnValues(ReturnValue.ALL_NEW)
+                .withReturnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD);
+    }
+
+    static DeleteItemRequest delete(String id) {
+        return new DeleteItemRequest()
+                .withTableName(Season.TABLE_NAME)
+                .withKey(key(id))
+                .withConditionExpression("attribute_exists(Id)")
+                .withReturnValues(ReturnValue.ALL_OLD);
+    }
+
+    private static String versionCondition(Long expectedVersion, Map<String, String> ean, Map<String, AttributeValue> eav) {
+        ean.put("#Version", "Version");
+        if (expectedVersion == null) {
+            return "attribute_exists(Id) AND attribute_not_exists(#Version)";
+        }
+        eav.put(":expectedVersion", new AttributeValue().withN(expectedVersion.toString()));
+        return "#Version = :expectedVersion";
+    }
+}
@@ -1,19 +1,24 @@
 package com.dmv.footballheadz.season.impl;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
-import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.dmv.footballheadz.season.IRepository;
 import com.dmv.footballheadz.season.IService;
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.PreconditionFailedException;
+import com.dmv.footballheadz.season.VersionConflictException;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-
-import static com.amazonaws.util.StringUtils.isNullOrEmpty;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service
 public class SeasonService implements IService<Season> {
@@ -21,115 +26,238 @@ public class SeasonService implements IService<Season> {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired
-    private SeasonRepository repository;
+    private IRepository<Season> repository;
+
+    @Autowired
+    private SeasonEtags etags;
+
+    @Autowired
+    private SeasonStandings standings;
+
+    @Autowired
+    private TeamAggregates teams;
+
+    @Value("${season.write.max-attempts:3}")
+    private int writeMaxAttempts;
 
+    @Value("${season.write.base-backoff-ms:10}")
+    private long writeBaseBackoffMs;
+
+    @Timed(SeasonMetrics.SERVICE_TIMER)
     public Optional<Season> read(String id) {
 
         log.trace("Entering read() with {}", id);
         return repository.read(id);
     }
 
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public Optional<Season> read(String id, Set<String> fields) {
+        log.trace("Entering read() with {}, {}", id, fields);
+        return repository.read(id, fields);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public List<Season> batchRead(List<String> ids) {
+        log.trace("Entering batchRead() with {} ids", ids.size());
+        return repository.batchRead(ids);
+    }
+
+    @Timed(SeasonMetrics.SERVICE_TIMER)
     public Optional<Season> create(Season season) {
         log.trace("Entering create() with {}", season);
-        if (repository.read(season.getId()).isPresent()) {
-            log.warn("Customer {} not found", season.getId());
+        season.setVersion(null);
+        if (!repository.saveIfAbsent(season)) {
+            log.warn("Season {} already exists", season.getId());
             return Optional.empty();
         }
-        repository.save(season);
+        etags.invalidate(season.getId());
+        standings.put(season);
+        teams.putCreated(season);
         return Optional.of(season);
     }
 
+    @Timed(SeasonMetrics.SERVICE_TIMER)
     public Optional<Season> replace(Season newSeasonData) {
+        return replace(newSeasonData, null);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public Optional<Season> replace(Season newSeasonData, Predicate<Season> precondition) {
         log.trace("Entering replace() with {}", newSeasonData);
-        Optional<Season> existingSeason = repository.read(newSeasonData.getId());
-        if (!existingSeason.isPresent()) {
-            log.warn("Customer {} not found", newSeasonData.getId());
+        if (!versioned("replace", newSeasonData, precondition, repository::replace).isPresent()) {
+            log.warn("Season {} not found", newSeasonData.getId());
             return Optional.empty();
         }
-        Season season = existingSeason.get();
-        season.setYear(newSeasonData.getYear());
-        season.setRank(newSeasonData.getRank());
-        season.setPlayoffRank(newSeasonData.getPlayoffRank());
-        season.setTeamName(newSeasonData.getTeamName());
-        season.setRecord(newSeasonData.getRecord());
-        season.setPct(newSeasonData.getPct());
-        season.setStreak(newSeasonData.getStreak());
-        season.setPointsFor(newSeasonData.getPointsFor());
-        season.setPointsAgainst(newSeasonData.getPointsAgainst());
-        repository.save(season);
-        return Optional.of(season);
+        etags.invalidate(newSeasonData.getId());
+        standings.put(newSeasonData);
+        teams.put(newSeasonData);
+        return Optional.of(newSeasonData);
     }
 
+    @Timed(SeasonMetrics.SERVICE_TIMER)
     public Optional<Season> update(Season newSeasonData) {
+        return update(newSeasonData, null);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public Optional<Season> update(Season newSeasonData, Predicate<Season> precondition) {
 
         log.trace("Entering update() with {}", newSeasonData);
-        Optional<Season> existingCustomer = repository.read(newSeasonData.getId());
-        if (!existingCustomer.isPresent()) {
+        Optional<Season> season = versioned("update", newSeasonData, precondition, repository::update);
+        if (!season.isPresent()) {
             log.warn("Season {} not found", newSeasonData.getId());
-            return Optional.empty();
-        }
-        Season season = existingCustomer.get();
-        if (!isNullOrEmpty(newSeasonData.getYear())){
-            season.setYear(newSeasonData.getYear());
-        }
-        if (!isNullOrEmpty(newSeasonData.getRank())){
-            season.setRank(newSeasonData.getRank());
-        }
-        if (!isNullOrEmpty(newSeasonData.getPlayoffRank())){
-            season.setPlayoffRank(newSeasonData.getPlayoffRank());
-        }
-        if (!isNullOrEmpty(newSeasonData.getTeamName())){
-            season.setTeamName(newSeasonData.getTeamName());
-        }
-        if (!isNullOrEmpty(newSeasonData.getRecord())){
-            season.setRecord(newSeasonData.getRecord());
+        } else {
+            etags.invalidate(newSeasonData.getId());
+            standings.put(season.get());
+            teams.put(season.get());
         }
-        if (null != newSeasonData.getPct()){
-            season.setPct(newSeasonData.getPct());
-        }
-        if (!isNullOrEmpty(newSeasonData.getStreak())){
-            season.setStreak(newSeasonData.getStreak());
+        return season;
+    }
+
+    /**
+     * A season that carries a version and no other precondition is written straight away,
+     * conditional on that version. Otherwise the stored season is read to check the precondition
+     * and stamp its version onto the new data; that read may come from the season cache, with the
+     * staleness bound reads have. Losing to a concurrent write starts over from the read, which
+     * then misses the cache since the repository evicts the season on a failed condition. Attempts
+     * are spaced with full jitter backoff so writers racing for one season do not retry in step.
+     */
+    private Optional<Season> versioned(String operation, Season newSeasonData, Predicate<Season> precondition,
+                                       Function<Season, Optional<Season>> write) {
+        Long expectedVersion = newSeasonData.getVersion();
+        if (expectedVersion != null && precondition == null) {
+            try {
+                return write.apply(newSeasonData);
+            } catch (VersionConflictException e) {
+                throw new PreconditionFailedException(newSeasonData.getId());
+            }
         }
-        if (null != newSeasonData.getPointsFor()){
-            season.setPointsFor(newSeasonData.getPointsFor());
+        for (int attempt = 1; ; attempt++) {
+            Optional<Season> stored = repository.read(newSeasonData.getId());
+            if (!stored.isPresent()) {
+                return Optional.empty();
+            }
+            if ((expectedVersion != null && !expectedVersion.equals(stored.get().getVersion()))
+                    || (precondition != null && !precondition.test(stored.get()))) {
+                throw new PreconditionFailedException(newSeasonData.getId());
+            }
+            newSeasonData.setVersion(stored.get().getVersion());
+            try {
+                return write.apply(newSeasonData);
+            } catch (VersionConflictException e) {
+                if (attempt >= writeMaxAttempts) {
+                    log.warn("Season {} lost {} attempts to concurrent writes", newSeasonData.getId(), attempt);
+                    throw e;
+                }
+                SeasonMetrics.writeRetried(operation);
+                log.debug("Season {} changed during {}, attempt {}", newSeasonData.getId(), operation, attempt);
+                backoff(attempt);
+            }
         }
-        if (null != newSeasonData.getPointsAgainst()){
-            season.setPointsAgainst(newSeasonData.getPointsAgainst());
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = writeBaseBackoffMs << Math.min(attempt, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during write retry backoff", e);
         }
-        repository.save(season);
-        return Optional.of(season);
     }
 
+    @Timed(SeasonMetrics.SERVICE_TIMER)
     public boolean delete(String id) {
         log.trace("Entering delete() with {}", id);
-        if (!repository.read(id).isPresent()) {
-            log.warn("Manager {} not found", id);
+        Optional<Season> deleted = repository.delete(id);
+        if (!deleted.isPresent()) {
+            log.warn("Season {} not found", id);
             return false;
         }
-        repository.delete(id);
+        etags.invalidate(id);
+        standings.remove(id);
+        teams.remove(deleted.get());
         return true;
     }
 
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public List<Season> batchSave(List<Season> seasons) {
+        log.trace("Entering batchSave() with {} seasons", seasons.size());
+        List<Season> failed = repository.batchSave(seasons);
+        seasons.forEach(season -> etags.invalidate(season.getId()));
+        standings.invalidateAll();
+        Set<String> failedIds = failed.stream().map(Season::getId).collect(Collectors.toSet());
+        teams.putAll(seasons.stream().filter(season -> !failedIds.contains(season.getId())).collect(Collectors.toList()));
+        if (!failed.isEmpty()) {
+            log.warn("{} of {} seasons could not be written", failed.size(), seasons.size());
+        }
+        return failed;
+    }
+
+    @Timed(SeasonMetrics.SERVICE_TIMER)
     public List<Season> list() {
         log.trace("Entering list()");
         return repository.readAll();
     }
 
     @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public List<Season> list(Set<String> fields) {
+        log.trace("Entering list() with {}", fields);
+        return repository.readAll(fields);
+    }
+
+    @Override
+    public Iterable<Season> listLazily() {
+        log.trace("Entering listLazily()");
+        return repository.readAllLazily();
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
     public List<Season> listByYear(String key) {
         log.trace("Entering listByYear()");
-        Map<String, AttributeValue> eav = new HashMap<>();
-        eav.put(":val", new AttributeValue().withS(key));
+        return repository.readByYear(key);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public List<Season> listByYear(String key, Set<String> fields) {
+        log.trace("Entering listByYear() with {}", fields);
+        return repository.readByYear(key, fields);
+    }
+
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public Page<Season> list(int limit, String token) {
+        log.trace("Entering list() with {}", limit);
+        return repository.readPage(limit, token);
+    }
 
-        Map<String, String> ean = new HashMap<>();
-        ean.put("#Year", "Year");
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public Page<Season> list(int limit, String token, Set<String> fields) {
+        log.trace("Entering list() with {}, {}", limit, fields);
+        return repository.readPage(limit, token, fields);
+    }
 
-        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
-                .withExpressionAttributeNames(ean)
-                .withFilterExpression("#Year = :val")
-                .withExpressionAttributeValues(eav);
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public Page<Season> listByYear(String key, int limit, String token) {
+        log.trace("Entering listByYear() with {}", limit);
+        return repository.readByYearPage(key, limit, token);
+    }
 
-        return repository.readExpression(dynamoDBScanExpression);
+    @Override
+    @Timed(SeasonMetrics.SERVICE_TIMER)
+    public Page<Season> listByYear(String key, int limit, String token, Set<String> fields) {
+        log.trace("Entering listByYear() with {}, {}", limit, fields);
+        return repository.readByYearPage(key, limit, token, fields);
     }
 
 }
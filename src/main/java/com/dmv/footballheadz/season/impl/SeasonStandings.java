@@ -0,0 +1,176 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.IRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Standings of each year: its seasons ordered by numeric rank, then pct and pointsFor descending.
+ * A year is loaded with one query on first request and kept as an immutable sorted list, so
+ * reads neither query nor sort. The services apply every write to the loaded years by removing
+ * the season and inserting it at its position, a copy of a list the size of the league.
+ * <p>
+ * A season older than the one held, by version, is ignored since writes can finish out of
+ * order. A load that overlapped a write may have missed it and is only kept when no write
+ * happened since the load started. Writes by other instances are not seen here; years are
+ * reloaded after {@code season.standings.ttl-seconds}, however often they are updated.
+ */
+@Component
+public class SeasonStandings {
+
+    static final Comparator<Season> ORDER = Comparator
+            .comparingInt(SeasonStandings::rankOf)
+            .thenComparing(Season::getPct, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Season::getPointsFor, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Season::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final IRepository<Season> repository;
+
+    private final Cache<String, List<Season>> years;
+
+    private long generation;
+
+    public SeasonStandings(IRepository<Season> repository,
+                           @Value("${season.standings.maximum-size:100}") long maximumSize,
+                           @Value("${season.standings.ttl-seconds:60}") long ttlSeconds) {
+        log.info("Keeping standings of {} years, ttl {}s", maximumSize, ttlSeconds);
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.repository = repository;
+        this.years = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, List<Season>>() {
+                    @Override
+                    public long expireAfterCreate(String year, List<Season> standings, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String year, List<Season> standings, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String year, List<Season> standings, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return the seasons of the year in standings order; the list must not be modified
+     */
+    public List<Season> ofYear(String year) {
+        log.trace("Entering ofYear() with {}", year);
+        List<Season> standings = years.getIfPresent(year);
+        if (standings != null) {
+            return standings;
+        }
+        long loadGeneration = generation();
+        List<Season> loaded = new ArrayList<>();
+        repository.readByYear(year).forEach(season -> loaded.add(new Season(season)));
+        loaded.sort(ORDER);
+        List<Season> sorted = Collections.unmodifiableList(loaded);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                years.asMap().putIfAbsent(year, sorted);
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Moves the written season to its place in the standings of its year, taking it out of any
+     * other year it was in.
+     */
+    public synchronized void put(Season season) {
+        log.trace("Entering put() with {}", season.getId());
+        generation++;
+        for (List<Season> standings : years.asMap().values()) {
+            if (isOlder(season, find(standings, season.getId()))) {
+                log.debug("Season {} in standings is newer than version {}", season.getId(), season.getVersion());
+                return;
+            }
+        }
+        Season copy = new Season(season);
+        for (String year : new ArrayList<>(years.asMap().keySet())) {
+            years.asMap().computeIfPresent(year, (key, standings) -> {
+                List<Season> next = new ArrayList<>(standings);
+                next.remove(find(standings, copy.getId()));
+                if (key.equals(copy.getYear())) {
+                    int position = Collections.binarySearch(next, copy, ORDER);
+                    next.add(position < 0 ? -position - 1 : position, copy);
+                } else if (next.size() == standings.size()) {
+                    return standings;
+                }
+                return Collections.unmodifiableList(next);
+            });
+        }
+    }
+
+    public synchronized void remove(String id) {
+        log.trace("Entering remove() with {}", id);
+        generation++;
+        for (String year : new ArrayList<>(years.asMap().keySet())) {
+            years.asMap().computeIfPresent(year, (key, standings) -> {
+                Season held = find(standings, id);
+                if (held == null) {
+                    return standings;
+                }
+                List<Season> next = new ArrayList<>(standings);
+                next.remove(held);
+                return Collections.unmodifiableList(next);
+            });
+        }
+    }
+
+    /**
+     * Forgets all years, for writes that do not say what they replaced such as batch saves.
+     */
+    public synchronized void invalidateAll() {
+        log.trace("Entering invalidateAll()");
+        generation++;
+        years.invalidateAll();
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private static Season find(List<Season> standings, String id) {
+        for (Season season : standings) {
+            if (Objects.equals(season.getId(), id)) {
+                return season;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOlder(Season season, Season held) {
+        return held != null && season.getVersion() != null && held.getVersion() != null
+                && season.getVersion() < held.getVersion();
+    }
+
+    /**
+     * Ranks are stored as strings; unranked seasons come last.
+     */
+    private static int rankOf(Season season) {
+        String rank = season.getRank();
+        return StringUtils.isNumeric(rank) && rank.length() < 10 ? Integer.parseInt(rank) : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,42 @@
+package com.dmv.footballheadz.season.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/v1")
+public class SeasonStandingsController {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private SeasonStandings standings;
+
+    @Autowired
+    private SeasonValidation seasonValidation;
+
+    @RequestMapping(path = "/standings/{year}", method = RequestMethod.GET)
+    public ResponseEntity<List<Season>> standings(@PathVariable("year") String year) {
+        log.trace("Entering standings() for {}", year);
+        if (!seasonValidation.isValidYear(year)) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        List<Season> seasons = standings.ofYear(year);
+        if (seasons.isEmpty()) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        return new ResponseEntity<>(seasons, OK);
+    }
+}
@@ -25,4 +25,34 @@ public class SeasonValidation {
         return StringUtils.isNotBlank(rank) && StringUtils.isNumeric(rank)
                 && Integer.parseInt(rank) >= 1 && Integer.parseInt(rank) <= SeasonUtils.LEAGUE_SIZE;
     }
+
+    public boolean isValidLimit(int limit) {
+        return limit >= 1 && limit <= SeasonUtils.MAX_PAGE_SIZE;
+    }
+
+    public boolean isValidFields(String fields) {
+        try {
+            return SeasonFields.parse(fields) != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks a season submitted in bulk, where there is no bean validation in front of us.
+     *
+     * @return why the season is rejected, or null if it is valid
+     */
+    public String invalidReason(Season season) {
+        if (season == null) {
+            return "Season must not be empty";
+        }
+        if (!isValidYear(season.getYear()) || !isValidId(season)) {
+            return "Id must be year|teamName";
+        }
+        if (season.getRank() != null && !isValidRank(season.getRank())) {
+            return "Rank must be between 1 and " + SeasonUtils.LEAGUE_SIZE;
+        }
+        return null;
+    }
 }
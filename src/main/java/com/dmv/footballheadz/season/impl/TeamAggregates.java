@@ -0,0 +1,272 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.IRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All-time totals per team, so franchise history needs no scan. The totals are built from one
+ * scan of the team fields, parallel when {@code season.scan.segments} is above 1, once the
+ * application is ready and then kept up to date by the services: each write subtracts what the
+ * season contributed before and adds what it contributes now. A season older than the one
+ * counted, by version, is ignored since writes can finish out of order. A delete leaves the
+ * deleted version behind, so a write finishing after the delete of a version up to that one is
+ * ignored too. Only a create gets past it, since a create is conditional on the id being absent
+ * and restarts at version 1; a create that raced its own delete is therefore counted again until
+ * the next rebuild, which also drops the deleted versions.
+ * <p>
+ * Rebuilds run on the teams executor every {@code season.teams.max-age-seconds}, to pick up writes
+ * by other instances, or on request. Readers keep getting the previous totals while a rebuild
+ * scans; its result is swapped in at once, with the writes made meanwhile replayed on top.
+ */
+@Component
+public class TeamAggregates {
+
+    static final Set<String> FIELDS = SeasonFields.parse("teamName,record,pointsFor,pointsAgainst,version");
+
+    static final Comparator<TeamTotals> ORDER = Comparator
+            .comparingInt(TeamTotals::getWins).reversed()
+            .thenComparing(Comparator.comparingDouble(TeamTotals::getPointsFor).reversed())
+            .thenComparing(TeamTotals::getTeamName);
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private IRepository<Season> repository;
+
+    @Autowired
+    @Qualifier("teamsExecutor")
+    private ScheduledExecutorService teamsExecutor;
+
+    @Value("${season.teams.max-age-seconds:3600}")
+    private long maxAgeSeconds;
+
+    private final Object rebuildLock = new Object();
+
+    private Map<String, Contribution> contributions;
+
+    private Map<String, TeamTotals> teams;
+
+    private List<Write> pending;
+
+    private List<TeamTotals> leaderboard;
+
+    /**
+     * Builds the totals in the background, then rebuilds them every
+     * {@code season.teams.max-age-seconds} unless that is 0.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRebuilds() {
+        log.trace("Entering scheduleRebuilds()");
+        if (maxAgeSeconds > 0) {
+            teamsExecutor.scheduleWithFixedDelay(this::rebuildQuietly, 0, maxAgeSeconds, TimeUnit.SECONDS);
+        } else {
+            teamsExecutor.execute(this::rebuildQuietly);
+        }
+    }
+
+    /**
+     * @return whether the totals have been built; until then there are none to serve
+     */
+    public synchronized boolean isBuilt() {
+        return teams != null;
+    }
+
+    public synchronized Optional<TeamTotals> ofTeam(String teamName) {
+        log.trace("Entering ofTeam() with {}", teamName);
+        return teams == null ? Optional.empty() : Optional.ofNullable(teams.get(teamName));
+    }
+
+    /**
+     * @return all teams by wins then points for, sorted again only after a write
+     */
+    public synchronized List<TeamTotals> leaderboard() {
+        log.trace("Entering leaderboard()");
+        if (teams == null) {
+            return Collections.emptyList();
+        }
+        if (leaderboard == null) {
+            List<TeamTotals> sorted = new ArrayList<>(teams.values());
+            sorted.sort(ORDER);
+            leaderboard = Collections.unmodifiableList(sorted);
+        }
+        return leaderboard;
+    }
+
+    public synchronized void put(Season season) {
+        log.trace("Entering put() with {}", season.getId());
+        write(new Write(season.getId(), new Season(season), season.getVersion(), false, false));
+    }
+
+    /**
+     * Counts a created season even if a season of the same id was deleted at a higher version.
+     */
+    public synchronized void putCreated(Season season) {
+        log.trace("Entering putCreated() with {}", season.getId());
+        write(new Write(season.getId(), new Season(season), season.getVersion(), false, true));
+    }
+
+    /**
+     * Counts seasons written without a version check, such as by batch saves, whatever version
+     * was counted before.
+     */
+    public synchronized void putAll(List<Season> seasons) {
+        log.trace("Entering putAll() with {} seasons", seasons.size());
+        seasons.forEach(season -> write(new Write(season.getId(), new Season(season), season.getVersion(), true, false)));
+    }
+
+    /**
+     * @param deleted the season as it was when deleted, whose version later writes must exceed
+     */
+    public synchronized void remove(Season deleted) {
+        log.trace("Entering remove() with {}", deleted.getId());
+        write(new Write(deleted.getId(), null, deleted.getVersion(), true, false));
+    }
+
+    /**
+     * Replaces the totals with those of a fresh scan.
+     *
+     * @return the number of teams
+     */
+    public int rebuild() {
+        log.trace("Entering rebuild()");
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                long start = System.nanoTime();
+                Map<String, Contribution> scannedContributions = new HashMap<>();
+                Map<String, TeamTotals> scannedTeams = new HashMap<>();
+                List<Season> seasons = repository.readAll(FIELDS);
+                seasons.forEach(season -> apply(scannedContributions, scannedTeams,
+                        new Write(season.getId(), season, season.getVersion(), true, false)));
+                synchronized (this) {
+                    pending.forEach(write -> apply(scannedContributions, scannedTeams, write));
+                    contributions = scannedContributions;
+                    teams = scannedTeams;
+                    leaderboard = null;
+                }
+                log.info("Rebuilt totals of {} teams from {} seasons in {} ms", scannedTeams.size(), seasons.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return scannedTeams.size();
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * A failed scheduled rebuild keeps the previous totals; throwing would cancel the schedule.
+     */
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Unable to rebuild team totals, keeping the previous ones", e);
+        }
+    }
+
+    private void write(Write write) {
+        if (pending != null) {
+            pending.add(write);
+        }
+        if (contributions != null) {
+            apply(contributions, teams, write);
+            leaderboard = null;
+        }
+    }
+
+    /**
+     * Moves the season's contribution, or replaces it with the deleted version when the write is a
+     * delete.
+     */
+    private static void apply(Map<String, Contribution> contributions, Map<String, TeamTotals> teams, Write write) {
+        String id = write.id;
+        Season season = write.season;
+        Contribution previous = contributions.get(id);
+        if (previous != null && write.isOlderThan(previous)) {
+            return;
+        }
+        if (previous != null) {
+            contributions.remove(id);
+            if (previous.totals != null) {
+                teams.computeIfPresent(previous.totals.getTeamName(), (team, totals) -> {
+                    TeamTotals remaining = totals.minus(previous.totals);
+                    return remaining.getSeasons() > 0 ? remaining : null;
+                });
+            }
+        }
+        if (season == null) {
+            contributions.put(id, new Contribution(null, write.version));
+        } else if (season.getTeamName() != null) {
+            TeamTotals added = TeamTotals.of(season);
+            contributions.put(id, new Contribution(added, write.version));
+            teams.merge(season.getTeamName(), added, TeamTotals::plus);
+        }
+    }
+
+    /**
+     * What a season id counts for, or only the version it was deleted at when totals is null.
+     */
+    private static final class Contribution {
+
+        final TeamTotals totals;
+        final Long version;
+
+        Contribution(TeamTotals totals, Long version) {
+            this.totals = totals;
+            this.version = version;
+        }
+    }
+
+    private static final class Write {
+
+        final String id;
+        final Season season;
+        final Long version;
+        final boolean unconditional;
+        final boolean created;
+
+        Write(String id, Season season, Long version, boolean unconditional, boolean created) {
+            this.id = id;
+            this.season = season;
+            this.version = version;
+            this.unconditional = unconditional;
+            this.created = created;
+        }
+
+        /**
+         * A write of the version a season was deleted at, or of an older one, finished before the
+         * delete; one of a version older than the counted one finished before the write counted.
+         */
+        boolean isOlderThan(Contribution previous) {
+            if (unconditional || version == null || previous.version == null) {
+                return false;
+            }
+            if (previous.totals == null) {
+                return !created && version <= previous.version;
+            }
+            return version < previous.version;
+        }
+    }
+}
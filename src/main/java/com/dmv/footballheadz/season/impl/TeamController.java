@@ -0,0 +1,66 @@
+package com.dmv.footballheadz.season.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.http.HttpStatus.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/v1")
+public class TeamController {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private TeamAggregates aggregates;
+
+    @RequestMapping(path = "/teams/{teamName}/totals", method = RequestMethod.GET)
+    public ResponseEntity<TeamTotals> totals(@PathVariable("teamName") String teamName) {
+        log.trace("Entering totals() for {}", teamName);
+        if (!aggregates.isBuilt()) {
+            return new ResponseEntity<>(SERVICE_UNAVAILABLE);
+        }
+        Optional<TeamTotals> totals = aggregates.ofTeam(teamName);
+        if (!totals.isPresent()) {
+            return new ResponseEntity<>(NOT_FOUND);
+        }
+        return new ResponseEntity<>(totals.get(), OK);
+    }
+
+    @RequestMapping(path = "/teams/leaderboard", method = RequestMethod.GET)
+    public ResponseEntity<List<TeamTotals>> leaderboard() {
+        log.trace("Entering leaderboard()");
+        if (!aggregates.isBuilt()) {
+            return new ResponseEntity<>(SERVICE_UNAVAILABLE);
+        }
+        List<TeamTotals> leaderboard = aggregates.leaderboard();
+        if (leaderboard.isEmpty()) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        return new ResponseEntity<>(leaderboard, OK);
+    }
+
+    /**
+     * Rebuilds the totals from a scan now, rather than at the next scheduled rebuild. Readers keep
+     * getting the previous totals meanwhile.
+     */
+    @RequestMapping(path = "/teams/rebuild", method = RequestMethod.POST)
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        log.trace("Entering rebuild()");
+        int teams = aggregates.rebuild();
+        return new ResponseEntity<>(Collections.singletonMap("teams", teams), OK);
+    }
+}
@@ -0,0 +1,134 @@
+package com.dmv.footballheadz.season.impl;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Objects;
+
+/**
+ * A team's totals over all its seasons. Points are kept in hundredths so that adding and
+ * subtracting seasons any number of times gives back exact sums.
+ */
+public class TeamTotals {
+
+    private final String teamName;
+    private final int seasons;
+    private final int wins;
+    private final int losses;
+    private final int ties;
+    private final long pointsForHundredths;
+    private final long pointsAgainstHundredths;
+
+    TeamTotals(String teamName, int seasons, int wins, int losses, int ties,
+               long pointsForHundredths, long pointsAgainstHundredths) {
+        this.teamName = teamName;
+        this.seasons = seasons;
+        this.wins = wins;
+        this.losses = losses;
+        this.ties = ties;
+        this.pointsForHundredths = pointsForHundredths;
+        this.pointsAgainstHundredths = pointsAgainstHundredths;
+    }
+
+    /**
+     * @return what the season adds to its team's totals, reading the record as wins-losses-ties
+     * with ties optional; a record that does not parse counts no games
+     */
+    static TeamTotals of(Season season) {
+        int[] record = parseRecord(season.getRecord());
+        return new TeamTotals(season.getTeamName(), 1, record[0], record[1], record[2],
+                hundredths(season.getPointsFor()), hundredths(season.getPointsAgainst()));
+    }
+
+    TeamTotals plus(TeamTotals other) {
+        return new TeamTotals(teamName, seasons + other.seasons, wins + other.wins, losses + other.losses,
+                ties + other.ties, pointsForHundredths + other.pointsForHundredths,
+                pointsAgainstHundredths + other.pointsAgainstHundredths);
+    }
+
+    TeamTotals minus(TeamTotals other) {
+        return new TeamTotals(teamName, seasons - other.seasons, wins - other.wins, losses - other.losses,
+                ties - other.ties, pointsForHundredths - other.pointsForHundredths,
+                pointsAgainstHundredths - other.pointsAgainstHundredths);
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public int getSeasons() {
+        return seasons;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getTies() {
+        return ties;
+    }
+
+    public String getRecord() {
+        return wins + "-" + losses + "-" + ties;
+    }
+
+    public double getPct() {
+        int games = wins + losses + ties;
+        return games == 0 ? 0 : (wins + ties / 2.0) / games;
+    }
+
+    public double getPointsFor() {
+        return pointsForHundredths / 100.0;
+    }
+
+    public double getPointsAgainst() {
+        return pointsAgainstHundredths / 100.0;
+    }
+
+    private static long hundredths(Double points) {
+        return points == null ? 0 : Math.round(points * 100);
+    }
+
+    private static int[] parseRecord(String record) {
+        int[] games = new int[3];
+        if (record == null) {
+            return games;
+        }
+        String[] parts = record.trim().split("-");
+        if (parts.length < 2 || parts.length > 3) {
+            return games;
+        }
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            if (!StringUtils.isNumeric(part) || part.length() > 6) {
+                return new int[3];
+            }
+            games[i] = Integer.parseInt(part);
+        }
+        return games;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TeamTotals that = (TeamTotals) o;
+        return seasons == that.seasons && wins == that.wins && losses == that.losses && ties == that.ties
+                && pointsForHundredths == that.pointsForHundredths
+                && pointsAgainstHundredths == that.pointsAgainstHundredths
+                && Objects.equals(teamName, that.teamName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(teamName, seasons, wins, losses, ties, pointsForHundredths, pointsAgainstHundredths);
+    }
+
+    @Override
+    public String toString() {
+        return teamName + " " + getRecord() + " in " + seasons + " seasons";
+    }
+}
@@ -8,10 +8,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
+@Profile("!in-memory")
 public class DatabaseInitialisation implements ApplicationListener<ContextRefreshedEvent> {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -29,12 +33,46 @@ public class DatabaseInitialisation implements ApplicationListener<ContextRefres
         CreateTableRequest request = dbMapper
                 .generateCreateTableRequest(Season.class)
                 .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+        if (request.getGlobalSecondaryIndexes() != null) {
+            request.getGlobalSecondaryIndexes().forEach(index -> index
+                    .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L))
+                    .withProjection(new Projection().withProjectionType(ProjectionType.ALL)));
+        }
         try {
             DescribeTableResult result = dynamoDB.describeTable(request.getTableName());
             log.info("Table status {}, {}", request.getTableName(), result.getTable().getTableStatus());
+            createMissingIndexes(request, result.getTable());
         } catch (ResourceNotFoundException expectedException) {
             CreateTableResult result = dynamoDB.createTable(request);
             log.info("Table creation triggered {}, {}", request.getTableName(), result.getTableDescription().getTableStatus());
         }
     }
+
+    private void createMissingIndexes(CreateTableRequest request, TableDescription table) {
+        if (request.getGlobalSecondaryIndexes() == null
+                || !TableStatus.ACTIVE.toString().equals(table.getTableStatus())) {
+            return;
+        }
+        List<GlobalSecondaryIndexDescription> existing = table.getGlobalSecondaryIndexes();
+        for (GlobalSecondaryIndex index : request.getGlobalSecondaryIndexes()) {
+            boolean present = existing != null && existing.stream()
+                    .anyMatch(description -> index.getIndexName().equals(description.getIndexName()));
+            if (present) {
+                continue;
+            }
+            // DynamoDB allows only one index creation per UpdateTable call, the rest follow on the next start.
+            // The index backfills in the background; SeasonRepository scans for year reads until it is ACTIVE.
+            dynamoDB.updateTable(new UpdateTableRequest()
+                    .withTableName(request.getTableName())
+                    .withAttributeDefinitions(request.getAttributeDefinitions())
+                    .withGlobalSecondaryIndexUpdates(new GlobalSecondaryIndexUpdate()
+                            .withCreate(new CreateGlobalSecondaryIndexAction()
+                                    .withIndexName(index.getIndexName())
+                                    .withKeySchema(index.getKeySchema())
+                                    .withProjection(index.getProjection())
+                                    .withProvisionedThroughput(index.getProvisionedThroughput()))));
+            log.info("Index creation triggered {}, {}", request.getTableName(), index.getIndexName());
+            return;
+        }
+    }
 }
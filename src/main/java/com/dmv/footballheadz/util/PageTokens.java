@@ -0,0 +1,74 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts DynamoDB LastEvaluatedKey/ExclusiveStartKey maps to and from the opaque
+ * continuation tokens handed out to clients. Only string key attributes are supported,
+ * which covers the Season table and its indexes.
+ */
+public class PageTokens {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> KEY_TYPE = new TypeReference<Map<String, String>>() { };
+
+    private PageTokens() { }
+
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> key = new HashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> key.put(name, value.getS()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(key));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode page token", e);
+        }
+    }
+
+    public static Map<String, AttributeValue> decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        Map<String, String> key;
+        try {
+            key = MAPPER.readValue(Base64.getUrlDecoder().decode(token), KEY_TYPE);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        Map<String, AttributeValue> startKey = new HashMap<>();
+        key.forEach((name, value) -> {
+            if (value == null) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            startKey.put(name, new AttributeValue().withS(value));
+        });
+        return startKey;
+    }
+
+    /**
+     * Decodes a token that must have been handed out by the listing whose keys are given: a token
+     * of another listing decodes fine but DynamoDB would reject it as ExclusiveStartKey.
+     *
+     * @param keyAttributes the attribute names of the listing's LastEvaluatedKey
+     */
+    public static Map<String, AttributeValue> decode(String token, Set<String> keyAttributes) {
+        Map<String, AttributeValue> startKey = decode(token);
+        if (startKey != null && !startKey.keySet().equals(keyAttributes)) {
+            throw new IllegalArgumentException("Page token does not belong to this listing");
+        }
+        return startKey;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dmv.footballheadz.util;
+
+import com.dmv.footballheadz.season.impl.SeasonExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Command line export of the Season table, e.g.
+ * {@code java -jar season-api.jar --season.export.dir=/data/export --spring.main.web-application-type=none}.
+ * Running it again with the same directory resumes an interrupted export.
+ */
+@Component
+@ConditionalOnProperty(name = "season.export.dir")
+public class SeasonExportRunner implements CommandLineRunner {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private SeasonExporter exporter;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${season.export.dir}")
+    private String directory;
+
+    @Override
+    public void run(String... args) throws IOException {
+        log.trace("Entering run() with {}", directory);
+        exporter.export(Paths.get(directory));
+        if (!(context instanceof WebServerApplicationContext)) {
+            SpringApplication.exit(context);
+        }
+    }
+}
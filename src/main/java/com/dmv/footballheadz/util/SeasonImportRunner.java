@@ -0,0 +1,60 @@
+package com.dmv.footballheadz.util;
+
+import com.dmv.footballheadz.season.impl.ImportReport;
+import com.dmv.footballheadz.season.impl.SeasonImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line import of a CSV or NDJSON file, e.g.
+ * {@code java -jar season-api.jar --season.import.file=seasons.csv --spring.main.web-application-type=none}.
+ * Without a web server the application exits once the import is done.
+ */
+@Component
+@ConditionalOnProperty(name = "season.import.file")
+public class SeasonImportRunner implements CommandLineRunner {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private SeasonImporter importer;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${season.import.file}")
+    private String file;
+
+    @Override
+    public void run(String... args) throws IOException {
+        log.trace("Entering run() with {}", file);
+        Path path = Paths.get(file);
+        SeasonImporter.Format format = file.toLowerCase().endsWith(".csv")
+                ? SeasonImporter.Format.CSV
+                : SeasonImporter.Format.NDJSON;
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(path)) {
+            report = importer.importSeasons(in, format);
+        }
+        log.info("Imported {}: {}", path, report);
+        report.getRejectedRows().forEach(row ->
+                log.warn("Rejected line {} ({}): {}", row.getLine(), row.getId(), row.getReason()));
+        if (!(context instanceof WebServerApplicationContext)) {
+            SpringApplication.exit(context);
+        }
+    }
+}
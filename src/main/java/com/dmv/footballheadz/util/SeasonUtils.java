@@ -4,5 +4,11 @@ public class SeasonUtils {
 
     public static final int LEAGUE_SIZE = 12;
 
+    public static final int DEFAULT_PAGE_SIZE = 25;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private SeasonUtils() { }
 }
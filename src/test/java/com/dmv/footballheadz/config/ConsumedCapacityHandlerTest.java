@@ -0,0 +1,59 @@
+package com.dmv.footballheadz.config;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Response;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ConsumedCapacityHandlerTest {
+
+    private final ConsumedCapacityHandler handler = new ConsumedCapacityHandler();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void beforeExecutionShouldRequestTotalConsumedCapacity() throws Exception {
+        GetItemRequest request = (GetItemRequest) handler.beforeExecution(new GetItemRequest());
+        assertThat(request.getReturnConsumedCapacity(), is(ReturnConsumedCapacity.TOTAL.toString()));
+    }
+
+    @Test
+    void beforeExecutionShouldKeepExplicitSetting() throws Exception {
+        GetItemRequest request = (GetItemRequest) handler.beforeExecution(new GetItemRequest()
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.INDEXES));
+        assertThat(request.getReturnConsumedCapacity(), is(ReturnConsumedCapacity.INDEXES.toString()));
+    }
+
+    @Test
+    void afterResponseShouldRecordUnitsPerOperation() throws Exception {
+        DefaultRequest<ScanRequest> request = new DefaultRequest<>(new ScanRequest(), "DynamoDB");
+        ScanResult result = new ScanResult().withConsumedCapacity(new ConsumedCapacity()
+                .withTableName("Season").withCapacityUnits(12.5));
+
+        handler.afterResponse(request, new Response<>(result, null));
+
+        assertThat(registry.get(ConsumedCapacityHandler.CONSUMED_CAPACITY)
+                .tag("operation", "Scan").tag("table", "Season").summary().totalAmount(), is(12.5));
+    }
+}
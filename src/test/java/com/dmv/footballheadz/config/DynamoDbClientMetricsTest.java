@@ -0,0 +1,51 @@
+package com.dmv.footballheadz.config;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.util.AWSRequestMetrics.Field;
+import com.amazonaws.util.AWSRequestMetricsFullSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DynamoDbClientMetricsTest {
+
+    private final DynamoDbClientMetrics metrics = new DynamoDbClientMetrics("sync", 200);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void gaugesShouldShowPoolSampleOfLastRequest() throws Exception {
+        metrics.bindTo(registry);
+        DefaultRequest<Void> request = new DefaultRequest<>("DynamoDB");
+        AWSRequestMetricsFullSupport requestMetrics = new AWSRequestMetricsFullSupport();
+        requestMetrics.setCounter(Field.HttpClientPoolLeasedCount, 12);
+        requestMetrics.setCounter(Field.HttpClientPoolAvailableCount, 3);
+        requestMetrics.setCounter(Field.HttpClientPoolPendingCount, 1);
+        request.setAWSRequestMetrics(requestMetrics);
+
+        metrics.collectMetrics(request, null);
+
+        assertThat(registry.get("dynamodb.client.pool.leased").tag("client", "sync").gauge().value(), is(12.0));
+        assertThat(registry.get("dynamodb.client.pool.available").gauge().value(), is(3.0));
+        assertThat(registry.get("dynamodb.client.pool.pending").gauge().value(), is(1.0));
+        assertThat(registry.get("dynamodb.client.pool.max").gauge().value(), is(200.0));
+    }
+
+    @Test
+    void gaugesShouldKeepLastSampleWhenRequestHasNoCounters() throws Exception {
+        metrics.bindTo(registry);
+        DefaultRequest<Void> request = new DefaultRequest<>("DynamoDB");
+        AWSRequestMetricsFullSupport requestMetrics = new AWSRequestMetricsFullSupport();
+        requestMetrics.setCounter(Field.HttpClientPoolLeasedCount, 5);
+        request.setAWSRequestMetrics(requestMetrics);
+        metrics.collectMetrics(request, null);
+
+        DefaultRequest<Void> next = new DefaultRequest<>("DynamoDB");
+        next.setAWSRequestMetrics(new AWSRequestMetricsFullSupport());
+        metrics.collectMetrics(next, null);
+
+        assertThat(registry.get("dynamodb.client.pool.leased").gauge().value(), is(5.0));
+    }
+}
@@ -1,5 +1,7 @@
 package com.dmv.footballheadz.config;
 
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.RetryMode;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.model.*;
@@ -11,9 +13,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
 
 import static com.amazonaws.services.dynamodbv2.model.TableStatus.*;
 import static com.amazonaws.services.dynamodbv2.model.TableStatus.UPDATING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
@@ -85,6 +91,96 @@ class DynamoDbConfigTest {
         verify(dynamoDB).createTable(createTableRequest);
     }
 
+    @Test
+    public void shouldProvisionGlobalSecondaryIndexesOnCreate() throws Exception {
+
+        createTableRequest.withGlobalSecondaryIndexes(yearIndex());
+        when(dynamoDB.describeTable(tableName)).thenThrow(new ResourceNotFoundException("Simulated failure"));
+        databaseInitialisation.onApplicationEvent(null);
+        GlobalSecondaryIndex index = createTableRequest.getGlobalSecondaryIndexes().get(0);
+        assertEquals(new ProvisionedThroughput(1L, 1L), index.getProvisionedThroughput());
+        assertEquals(ProjectionType.ALL.toString(), index.getProjection().getProjectionType());
+    }
+
+    @Test
+    public void shouldCreateMissingIndexIfTableAlreadyExists() throws Exception {
+
+        createTableRequest.withGlobalSecondaryIndexes(yearIndex());
+        when(dynamoDB.describeTable(tableName))
+                .thenReturn(new DescribeTableResult().withTable(tableDescriptionWithStatus(ACTIVE)));
+        databaseInitialisation.onApplicationEvent(null);
+        verify(dynamoDB).updateTable(any(UpdateTableRequest.class));
+    }
+
+    @Test
+    public void shouldNotCreateIndexIfAlreadyExists() throws Exception {
+
+        createTableRequest.withGlobalSecondaryIndexes(yearIndex());
+        when(dynamoDB.describeTable(tableName))
+                .thenReturn(new DescribeTableResult().withTable(tableDescriptionWithStatus(ACTIVE)
+                        .withGlobalSecondaryIndexes(new GlobalSecondaryIndexDescription().withIndexName(Season.YEAR_INDEX))));
+        databaseInitialisation.onApplicationEvent(null);
+        verify(dynamoDB, never()).updateTable(any(UpdateTableRequest.class));
+    }
+
+    @Test
+    public void clientConfigurationShouldApplyConfiguredProfile() throws Exception {
+
+        ClientConfiguration clientConfiguration = dynamoDbConfig("").dynamoDBClientConfiguration();
+        assertEquals(200, clientConfiguration.getMaxConnections());
+        assertEquals(60000L, clientConfiguration.getConnectionTTL());
+        assertEquals(true, clientConfiguration.useTcpKeepAlive());
+        assertEquals(2000, clientConfiguration.getSocketTimeout());
+        assertEquals(3000, clientConfiguration.getRequestTimeout());
+        assertEquals(RetryMode.ADAPTIVE, clientConfiguration.getRetryPolicy().getRetryMode());
+        assertEquals(3, clientConfiguration.getRetryPolicy().getMaxErrorRetry());
+    }
+
+    @Test
+    public void clientShouldUseConfiguredEndpoint() throws Exception {
+
+        DynamoDbConfig config = dynamoDbConfig("http://localhost:8000");
+        AmazonDynamoDB client = config.amazaonDynamoDB(config.dynamoDBClientConfiguration());
+        assertEquals(URI.create("http://localhost:8000"), ReflectionTestUtils.getField(client, "endpoint"));
+        client.shutdown();
+    }
+
+    @Test
+    public void clientShouldUseRegionEndpointWithoutOverride() throws Exception {
+
+        DynamoDbConfig config = dynamoDbConfig("");
+        AmazonDynamoDB client = config.amazaonDynamoDB(config.dynamoDBClientConfiguration());
+        assertEquals(URI.create("https://dynamodb.eu-west-1.amazonaws.com"), ReflectionTestUtils.getField(client, "endpoint"));
+        client.shutdown();
+    }
+
+    private DynamoDbConfig dynamoDbConfig(String endpoint) {
+
+        DynamoDbConfig config = new DynamoDbConfig();
+        ReflectionTestUtils.setField(config, "amazonDynamoDBEndpoint", endpoint);
+        ReflectionTestUtils.setField(config, "amazonDynamoDBRegion", "eu-west-1");
+        ReflectionTestUtils.setField(config, "maxConnections", 200);
+        ReflectionTestUtils.setField(config, "connectionTtlMs", 60000L);
+        ReflectionTestUtils.setField(config, "connectionMaxIdleMs", 30000L);
+        ReflectionTestUtils.setField(config, "tcpKeepAlive", true);
+        ReflectionTestUtils.setField(config, "connectionTimeoutMs", 1000);
+        ReflectionTestUtils.setField(config, "socketTimeoutMs", 2000);
+        ReflectionTestUtils.setField(config, "requestTimeoutMs", 3000);
+        ReflectionTestUtils.setField(config, "executionTimeoutMs", 10000);
+        ReflectionTestUtils.setField(config, "retryMode", RetryMode.ADAPTIVE);
+        ReflectionTestUtils.setField(config, "maxRetries", 3);
+        ReflectionTestUtils.setField(config, "retryBaseDelayMs", 25);
+        ReflectionTestUtils.setField(config, "retryThrottledBaseDelayMs", 100);
+        ReflectionTestUtils.setField(config, "retryMaxBackoffMs", 1000);
+        return config;
+    }
+
+    private GlobalSecondaryIndex yearIndex() {
+
+        return new GlobalSecondaryIndex().withIndexName(Season.YEAR_INDEX)
+                .withKeySchema(new KeySchemaElement("Year", KeyType.HASH));
+    }
+
     private TableDescription tableDescriptionWithStatus(TableStatus status) {
 
         return new TableDescription().withTableStatus(status).withTableName(tableName);
@@ -0,0 +1,47 @@
+package com.dmv.footballheadz.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ExtendWith(SpringExtension.class)
+class ExecutorConfigTest {
+
+    private final ExecutorConfig config = new ExecutorConfig();
+
+    @Test
+    void scanExecutorShouldUsePlatformThreadsByDefault() throws Exception {
+        ReflectionTestUtils.setField(config, "scanThreads", 1);
+        ReflectionTestUtils.setField(config, "scanQueueCapacity", 1);
+
+        assertThat(runsOnVirtualThread(config.scanExecutor()), is(false));
+    }
+
+    @Test
+    void scanExecutorShouldUseVirtualThreadsWhenEnabled() throws Exception {
+        ReflectionTestUtils.setField(config, "scanThreads", 1);
+        ReflectionTestUtils.setField(config, "scanQueueCapacity", 1);
+        ReflectionTestUtils.setField(config, "virtualThreads", true);
+
+        assertThat(runsOnVirtualThread(config.scanExecutor()), is(true));
+    }
+
+    @Test
+    void requestExecutorShouldUseVirtualThreads() throws Exception {
+        assertThat(runsOnVirtualThread(new VirtualThreadConfig().requestExecutor()), is(true));
+    }
+
+    private static boolean runsOnVirtualThread(ExecutorService executor) throws Exception {
+        try {
+            return executor.submit(() -> Thread.currentThread().isVirtual()).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
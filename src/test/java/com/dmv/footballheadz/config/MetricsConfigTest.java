@@ -0,0 +1,36 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.season.impl.Season;
+import com.dmv.footballheadz.season.impl.SeasonRepository;
+import com.dmv.footballheadz.season.impl.SeasonService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsConfigTest {
+
+    @Test
+    void timedAspectShouldTimeAnnotatedServiceMethods() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SeasonRepository repository = mock(SeasonRepository.class);
+        when(repository.read("1d")).thenReturn(Optional.of(new Season().withId("1d")));
+        SeasonService target = new SeasonService();
+        ReflectionTestUtils.setField(target, "repository", repository);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MetricsConfig().timedAspect(registry));
+        SeasonService service = factory.getProxy();
+
+        service.read("1d");
+
+        assertThat(registry.get("season.service").tag("method", "read").timer().count(), is(1L));
+    }
+}
@@ -0,0 +1,59 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.season.impl.SeasonController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ExtendWith(SpringExtension.class)
+class StreamTimeoutConfigTest {
+
+    private final StreamTimeoutConfig config = new StreamTimeoutConfig();
+
+    private MockHttpServletRequest servletRequest;
+
+    private StandardServletAsyncWebRequest request;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(config, "streamTimeoutMs", 600000L);
+        servletRequest = new MockHttpServletRequest();
+        request = new StandardServletAsyncWebRequest(servletRequest, new MockHttpServletResponse());
+    }
+
+    @Test
+    void ndjsonStreamShouldGetTheStreamTimeout() throws Exception {
+        servletRequest.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+                Collections.singleton(MediaType.parseMediaType(SeasonController.APPLICATION_NDJSON_VALUE)));
+
+        config.streamTimeoutInterceptor().beforeConcurrentHandling(request, () -> null);
+
+        assertThat(ReflectionTestUtils.getField(request, "timeout"), is(600000L));
+    }
+
+    @Test
+    void otherAsyncHandlersShouldKeepTheDefaultTimeout() throws Exception {
+        CallableProcessingInterceptor interceptor = config.streamTimeoutInterceptor();
+
+        interceptor.beforeConcurrentHandling(request, () -> null);
+        servletRequest.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+                Collections.singleton(MediaType.APPLICATION_JSON));
+        interceptor.beforeConcurrentHandling(request, () -> null);
+
+        assertThat(ReflectionTestUtils.getField(request, "timeout"), is(nullValue()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.*;
+
+@ExtendWith(SpringExtension.class)
+class AsyncSeasonControllerTest {
+
+    @InjectMocks
+    private AsyncSeasonController controller;
+
+    @Mock
+    private AsyncSeasonService service;
+
+    @Test
+    void readShouldCompleteWithOkWhenSeasonExists() throws Exception {
+        Season season = new Season().withId("1d");
+        when(service.read("1d")).thenReturn(CompletableFuture.completedFuture(Optional.of(season)));
+
+        ResponseEntity<Season> response = controller.read("1d").get();
+
+        assertThat(response.getStatusCode(), is(OK));
+        assertThat(response.getBody(), is(season));
+    }
+
+    @Test
+    void readShouldNotWaitForThePendingCall() throws Exception {
+        CompletableFuture<Optional<Season>> pending = new CompletableFuture<>();
+        when(service.read("1d")).thenReturn(pending);
+
+        CompletableFuture<ResponseEntity<Season>> response = controller.read("1d");
+
+        assertThat(response.isDone(), is(false));
+        pending.complete(Optional.empty());
+        assertThat(response.get().getStatusCode(), is(NOT_FOUND));
+    }
+
+    @Test
+    void createShouldCompleteWithConflictWhenSeasonExists() throws Exception {
+        Season season = new Season().withId("1d");
+        when(service.create(season)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        assertThat(controller.create(season).get().getStatusCode(), is(CONFLICT));
+    }
+
+    @Test
+    void putShouldCompleteWithOkWhenSeasonIsReplaced() throws Exception {
+        Season season = new Season().withId("1d").withRank("1");
+        when(service.replace(season)).thenReturn(CompletableFuture.completedFuture(Optional.of(season)));
+
+        assertThat(controller.put("1d", season).get().getStatusCode(), is(OK));
+    }
+
+    @Test
+    void patchShouldCompleteWithNotFoundWhenSeasonIsMissing() throws Exception {
+        Season season = new Season().withId("1d").withStreak("W1");
+        when(service.update(season)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        assertThat(controller.patch("1d", season).get().getStatusCode(), is(NOT_FOUND));
+    }
+
+    @Test
+    void putShouldCompleteWithPreconditionFailedWhenVersionIsStale() throws Exception {
+        Season season = new Season().withId("1d").withRank("1").withVersion(3L);
+        CompletableFuture<Optional<Season>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new PreconditionFailedException("1d"));
+        when(service.replace(season)).thenReturn(failed);
+
+        assertThat(controller.put("1d", season).get().getStatusCode(), is(PRECONDITION_FAILED));
+    }
+
+    @Test
+    void deleteShouldCompleteWithNoContentWhenSeasonIsDeleted() throws Exception {
+        when(service.delete("1d")).thenReturn(CompletableFuture.completedFuture(true));
+
+        assertThat(controller.delete("1d").get().getStatusCode(), is(NO_CONTENT));
+    }
+}
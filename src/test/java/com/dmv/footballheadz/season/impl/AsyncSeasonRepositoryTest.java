@@ -0,0 +1,201 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsync;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.dmv.footballheadz.season.VersionConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class AsyncSeasonRepositoryTest {
+
+    @Mock
+    private DynamoDBMapper dbMapper;
+
+    @Mock
+    private AmazonDynamoDBAsync dynamoDBAsync;
+
+    @InjectMocks
+    private AsyncSeasonRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDBAsync).getTableModel(Season.class));
+    }
+
+    @Test
+    public void readShouldCompleteWithTheItem() throws Exception {
+        doAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1),
+                new GetItemResult().withItem(Collections.singletonMap("Id", new AttributeValue().withS("1d")))))
+                .when(dynamoDBAsync).getItemAsync(any(GetItemRequest.class), any());
+
+        Optional<Season> result = repository.read("1d").get();
+
+        assertThat(result, is(Optional.of(new Season().withId("1d"))));
+    }
+
+    @Test
+    public void readShouldNotCacheOverASeasonWrittenWhileItWasInFlight() throws Exception {
+        SeasonCache cache = new SeasonCache(100, 60, 5);
+        ReflectionTestUtils.setField(repository, "cache", cache);
+        Map<String, AttributeValue> before = new HashMap<>();
+        before.put("Id", new AttributeValue().withS("1d"));
+        before.put("Rank", new AttributeValue().withS("2"));
+        before.put("Version", new AttributeValue().withN("1"));
+        doAnswer(invocation -> {
+            cache.put(new Season().withId("1d").withRank("1").withVersion(2L));
+            return succeed(invocation.getArgument(0), invocation.getArgument(1), new GetItemResult().withItem(before));
+        }).when(dynamoDBAsync).getItemAsync(any(GetItemRequest.class), any());
+
+        assertThat(repository.read("1d").get().get().getRank(), is("2"));
+
+        assertThat(repository.read("1d").get().get().getRank(), is("1"));
+        verify(dynamoDBAsync, times(1)).getItemAsync(any(GetItemRequest.class), any());
+    }
+
+    @Test
+    public void readShouldCompleteEmptyWhenItemIsMissing() throws Exception {
+        doAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1), new GetItemResult()))
+                .when(dynamoDBAsync).getItemAsync(any(GetItemRequest.class), any());
+
+        assertThat(repository.read("1d").get(), is(Optional.empty()));
+    }
+
+    @Test
+    public void saveIfAbsentShouldPutWithIdNotExistsCondition() throws Exception {
+        doAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1), new PutItemResult()))
+                .when(dynamoDBAsync).putItemAsync(any(PutItemRequest.class), any());
+
+        Season season = new Season().withId("1d");
+
+        assertThat(repository.saveIfAbsent(season).get(), is(true));
+        assertThat(season.getVersion(), is(1L));
+        verify(dynamoDBAsync).putItemAsync(argThat((PutItemRequest request) ->
+                "attribute_not_exists(Id)".equals(request.getConditionExpression())
+                        && "1".equals(request.getItem().get("Version").getN())), any());
+    }
+
+    @Test
+    public void saveIfAbsentShouldCompleteFalseWhenConditionFails() throws Exception {
+        doAnswer(invocation -> fail(invocation.getArgument(1), new ConditionalCheckFailedException("exists")))
+                .when(dynamoDBAsync).putItemAsync(any(PutItemRequest.class), any());
+
+        assertThat(repository.saveIfAbsent(new Season().withId("1d")).get(), is(false));
+    }
+
+    @Test
+    public void replaceShouldCompleteWithTheOldItem() throws Exception {
+        Map<String, AttributeValue> old = new HashMap<>();
+        old.put("Id", new AttributeValue().withS("1d"));
+        old.put("Rank", new AttributeValue().withS("2"));
+        doAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1),
+                new PutItemResult().withAttributes(old)))
+                .when(dynamoDBAsync).putItemAsync(any(PutItemRequest.class), any());
+
+        Optional<Season> result = repository.replace(new Season().withId("1d").withRank("1")).get();
+
+        assertThat(result, is(Optional.of(new Season().withId("1d").withRank("2"))));
+        verify(dynamoDBAsync).putItemAsync(argThat((PutItemRequest request) ->
+                "attribute_exists(Id) AND attribute_not_exists(#Version)".equals(request.getConditionExpression())
+                        && "1".equals(request.getItem().get("Version").getN())
+                        && ReturnValue.ALL_OLD.toString().equals(request.getReturnValues())), any());
+    }
+
+    @Test
+    public void updateShouldSetOnlyPresentAttributes() throws Exception {
+        Map<String, AttributeValue> stored = new HashMap<>();
+        stored.put("Id", new AttributeValue().withS("1d"));
+        stored.put("Streak", new AttributeValue().withS("W3"));
+        doAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1),
+                new UpdateItemResult().withAttributes(stored)))
+                .when(dynamoDBAsync).updateItemAsync(any(UpdateItemRequest.class), any());
+
+        Optional<Season> result = repository.update(new Season().withId("1d").withStreak("W3")).get();
+
+        assertThat(result, is(Optional.of(new Season().withId("1d").withStreak("W3"))));
+        verify(dynamoDBAsync).updateItemAsync(argThat((UpdateItemRequest request) ->
+                "SET #Streak = :Streak, #Version = :Version".equals(request.getUpdateExpression())
+                        && ReturnValue.ALL_NEW.toString().equals(request.getReturnValues())), any());
+    }
+
+    @Test
+    public void updateShouldFailWithVersionConflictWhenConditionFailsOnStoredItem() throws Exception {
+        doAnswer(invocation -> fail(invocation.getArgument(1), new ConditionalCheckFailedException("changed")
+                .withItem(Collections.singletonMap("Id", new AttributeValue().withS("1d")))))
+                .when(dynamoDBAsync).updateItemAsync(any(UpdateItemRequest.class), any());
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> repository.update(new Season().withId("1d").withStreak("W3").withVersion(2L)).get());
+        assertThat(e.getCause(), is(instanceOf(VersionConflictException.class)));
+    }
+
+    @Test
+    public void deleteShouldCompleteEmptyWhenConditionFails() throws Exception {
+        doAnswer(invocation -> fail(invocation.getArgument(1), new ConditionalCheckFailedException("missing")))
+                .when(dynamoDBAsync).deleteItemAsync(any(DeleteItemRequest.class), any());
+
+        assertThat(repository.delete("1d").get(), is(Optional.empty()));
+    }
+
+    @Test
+    public void deleteShouldCompleteExceptionallyOnOtherErrors() throws Exception {
+        doAnswer(invocation -> fail(invocation.getArgument(1), new AmazonServiceException("throttled")))
+                .when(dynamoDBAsync).deleteItemAsync(any(DeleteItemRequest.class), any());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> repository.delete("1d").get());
+        assertThat(e.getCause(), is(instanceOf(AmazonServiceException.class)));
+    }
+
+    @Test
+    public void deleteShouldCompleteWithTheOldItem() throws Exception {
+        doAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1), new DeleteItemResult()
+                .withAttributes(Collections.singletonMap("Id", new AttributeValue().withS("1d")))))
+                .when(dynamoDBAsync).deleteItemAsync(any(DeleteItemRequest.class), any());
+
+        assertThat(repository.delete("1d").get(), is(equalTo(Optional.of(new Season().withId("1d")))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Q extends AmazonWebServiceRequest, R> Object succeed(Q request, Object handler, R result) {
+        ((AsyncHandler<Q, R>) handler).onSuccess(request, result);
+        return null;
+    }
+
+    private static Object fail(Object handler, Exception exception) {
+        ((AsyncHandler<?, ?>) handler).onError(exception);
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.dmv.footballheadz.season.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ExtendWith(SpringExtension.class)
+public class AsyncSeasonServiceTest {
+
+    @Mock
+    private SeasonEtags etags;
+
+    @Mock
+    private SeasonStandings standings;
+
+    @Mock
+    private TeamAggregates teams;
+
+    @InjectMocks
+    private AsyncSeasonService service;
+
+    private final InMemorySeasonRepository stored = new InMemorySeasonRepository();
+
+    @BeforeEach
+    public void setUp() {
+        InMemoryAsyncSeasonRepository repository = new InMemoryAsyncSeasonRepository();
+        ReflectionTestUtils.setField(repository, "repository", stored);
+        ReflectionTestUtils.setField(service, "repository", repository);
+        ReflectionTestUtils.setField(service, "writeMaxAttempts", 3);
+    }
+
+    @Test
+    public void createShouldReturnVersionOne() throws Exception {
+        Season season = new Season().withId("2012|DaHogPit").withYear("2012").withVersion(7L);
+
+        Season created = service.create(season).get().get();
+
+        assertThat(created.getVersion(), is(1L));
+        assertThat(stored.read("2012|DaHogPit").get().getVersion(), is(1L));
+    }
+
+    @Test
+    public void replaceOfCreatedSeasonShouldReturnNextVersion() throws Exception {
+        service.create(new Season().withId("2012|DaHogPit").withYear("2012")).get();
+
+        Season replaced = service.replace(new Season().withId("2012|DaHogPit").withYear("2012").withRank("1")).get().get();
+
+        assertThat(replaced.getVersion(), is(2L));
+        assertThat(stored.read("2012|DaHogPit").get().getRank(), is("1"));
+    }
+}
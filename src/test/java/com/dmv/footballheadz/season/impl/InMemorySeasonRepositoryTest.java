@@ -0,0 +1,210 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.VersionConflictException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+
+@ExtendWith(SpringExtension.class)
+public class InMemorySeasonRepositoryTest {
+
+    private final InMemorySeasonRepository repository = new InMemorySeasonRepository();
+
+    @Test
+    public void saveIfAbsentShouldNotOverwriteExistingSeason() throws Exception {
+        assertThat(repository.saveIfAbsent(season("2012", "DaHogPit").withRank("1")), is(true));
+        assertThat(repository.saveIfAbsent(season("2012", "DaHogPit").withRank("2")), is(false));
+        assertThat(repository.read("2012|DaHogPit").get().getRank(), is("1"));
+    }
+
+    @Test
+    public void readShouldReturnCopyOfStoredSeason() throws Exception {
+        Season season = season("2012", "DaHogPit");
+        repository.save(season);
+        season.setYear("2013");
+        repository.read("2012|DaHogPit").get().setYear("2014");
+
+        assertThat(repository.read("2012|DaHogPit").get().getYear(), is("2012"));
+        assertThat(repository.readByYear("2012"), hasSize(1));
+    }
+
+    @Test
+    public void readByYearAndTeamShouldUseIndexes() throws Exception {
+        repository.batchSave(asList(season("2012", "DaHogPit"), season("2012", "GimmyDaLoot"),
+                season("2013", "DaHogPit")));
+
+        assertThat(ids(repository.readByYear("2012")), contains("2012|DaHogPit", "2012|GimmyDaLoot"));
+        assertThat(ids(repository.readByTeam("DaHogPit")), contains("2012|DaHogPit", "2013|DaHogPit"));
+        assertThat(repository.readByYear("1999"), is(empty()));
+    }
+
+    @Test
+    public void batchSaveShouldIncrementTheStoredVersionNotTheOneSent() throws Exception {
+        repository.save(season("2012", "DaHogPit").withVersion(6L));
+        Season sent = season("2012", "DaHogPit").withRank("1").withVersion(1L);
+
+        repository.batchSave(asList(sent, season("2013", "DaHogPit").withVersion(40L)));
+
+        assertThat(sent.getVersion(), is(8L));
+        assertThat(repository.read("2012|DaHogPit").get().getVersion(), is(8L));
+        assertThat(repository.read("2013|DaHogPit").get().getVersion(), is(1L));
+    }
+
+    @Test
+    public void updateShouldMoveSeasonBetweenIndexEntries() throws Exception {
+        repository.save(season("2012", "DaHogPit").withRank("3"));
+
+        Optional<Season> updated = repository.update(new Season().withId("2012|DaHogPit").withYear("2013").withRank("").withVersion(1L));
+
+        assertThat(updated.get().getYear(), is("2013"));
+        assertThat(updated.get().getRank(), is("3"));
+        assertThat(updated.get().getVersion(), is(2L));
+        assertThat(repository.readByYear("2012"), is(empty()));
+        assertThat(ids(repository.readByYear("2013")), contains("2012|DaHogPit"));
+    }
+
+    @Test
+    public void writesShouldReturnEmptyWhenSeasonIsMissing() throws Exception {
+        assertThat(repository.replace(season("2012", "DaHogPit")), is(Optional.empty()));
+        assertThat(repository.update(season("2012", "DaHogPit")), is(Optional.empty()));
+        assertThat(repository.delete("2012|DaHogPit"), is(Optional.empty()));
+        assertThat(repository.readAll(), is(empty()));
+    }
+
+    @Test
+    public void replaceShouldReturnPreviousSeason() throws Exception {
+        repository.save(season("2012", "DaHogPit").withRank("1"));
+
+        Season replacement = season("2012", "DaHogPit").withRank("2").withVersion(1L);
+        Optional<Season> previous = repository.replace(replacement);
+
+        assertThat(previous.get().getRank(), is("1"));
+        assertThat(replacement.getVersion(), is(2L));
+        assertThat(repository.read("2012|DaHogPit").get().getRank(), is("2"));
+    }
+
+    @Test
+    public void writesShouldRejectStaleVersionAndKeepStoredSeason() throws Exception {
+        repository.save(season("2012", "DaHogPit").withRank("1"));
+        repository.update(new Season().withId("2012|DaHogPit").withRank("2").withVersion(1L));
+
+        assertThrows(VersionConflictException.class,
+                () -> repository.replace(season("2012", "DaHogPit").withRank("3").withVersion(1L)));
+        assertThrows(VersionConflictException.class,
+                () -> repository.update(new Season().withId("2012|DaHogPit").withYear("2013")));
+
+        Season stored = repository.read("2012|DaHogPit").get();
+        assertThat(stored.getRank(), is("2"));
+        assertThat(stored.getVersion(), is(2L));
+        assertThat(ids(repository.readByYear("2012")), contains("2012|DaHogPit"));
+    }
+
+    @Test
+    public void deleteShouldRemoveSeasonFromIndexes() throws Exception {
+        repository.save(season("2012", "DaHogPit"));
+
+        assertThat(repository.delete("2012|DaHogPit").isPresent(), is(true));
+        assertThat(repository.readByYear("2012"), is(empty()));
+        assertThat(repository.readByTeam("DaHogPit"), is(empty()));
+        assertThat(repository.readAll(), is(empty()));
+    }
+
+    @Test
+    public void readPageShouldContinueAfterToken() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            repository.save(season("201" + i, "DaHogPit"));
+        }
+
+        Page<Season> first = repository.readPage(3, null);
+        Page<Season> second = repository.readPage(3, first.getNextToken());
+
+        assertThat(ids(first.getItems()), contains("2010|DaHogPit", "2011|DaHogPit", "2012|DaHogPit"));
+        assertThat(ids(second.getItems()), contains("2013|DaHogPit", "2014|DaHogPit"));
+        assertThat(second.hasNext(), is(false));
+    }
+
+    @Test
+    public void readByYearPageShouldPageThroughYear() throws Exception {
+        repository.batchSave(asList(season("2012", "A"), season("2012", "B"), season("2013", "C")));
+
+        Page<Season> first = repository.readByYearPage("2012", 1, null);
+        Page<Season> second = repository.readByYearPage("2012", 1, first.getNextToken());
+
+        assertThat(ids(first.getItems()), contains("2012|A"));
+        assertThat(ids(second.getItems()), contains("2012|B"));
+        assertThat(second.hasNext(), is(false));
+    }
+
+    @Test
+    public void readSegmentPagesShouldCoverEverySeasonOnce() throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            repository.save(season("2012", "Team" + i));
+            expected.add("2012|Team" + i);
+        }
+
+        List<String> scanned = new ArrayList<>();
+        for (int segment = 0; segment < 3; segment++) {
+            scanned.addAll(ids(repository.readSegmentPage(segment, 3, 0, null).getItems()));
+        }
+
+        assertThat(scanned, containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    public void concurrentWritesShouldKeepIndexesConsistent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        repository.save(season("2012", "Team" + i));
+                        Long version = repository.read("2012|Team" + i).get().getVersion();
+                        try {
+                            repository.update(new Season().withId("2012|Team" + i)
+                                    .withYear(i % 2 == 0 ? "2012" : "2013").withVersion(version));
+                        } catch (VersionConflictException e) {
+                            // another writer got in between, which is what this test provokes
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(repository.readAll(), hasSize(200));
+        assertThat(repository.readByYear("2012").size() + repository.readByYear("2013").size(), is(200));
+    }
+
+    private static Season season(String year, String teamName) {
+        return new Season().withId(year + "|" + teamName).withYear(year).withTeamName(teamName);
+    }
+
+    private static List<String> ids(List<Season> seasons) {
+        List<String> ids = new ArrayList<>();
+        seasons.forEach(season -> ids.add(season.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,116 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputDescription;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ScanRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final AmazonDynamoDB dynamoDB = mock(AmazonDynamoDB.class);
+
+    private final ScanRateLimiter limiter = new ScanRateLimiter(now::get);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(limiter, "dynamoDB", dynamoDB);
+        ReflectionTestUtils.setField(limiter, "capacityFraction", 0.5);
+        ReflectionTestUtils.setField(limiter, "capacityRefreshSeconds", 300L);
+    }
+
+    @Test
+    public void reserveShouldGoAheadWhileNotInDebt() throws Exception {
+        ReflectionTestUtils.setField(limiter, "readCapacityUnits", 10.0);
+        assertThat(limiter.reserve(), is(0L));
+    }
+
+    @Test
+    public void reserveShouldWaitUntilConsumedUnitsArePaidBack() throws Exception {
+        ReflectionTestUtils.setField(limiter, "readCapacityUnits", 10.0);
+        limiter.reserve();
+        limiter.consume(new ConsumedCapacity().withCapacityUnits(10.0));
+
+        assertThat(limiter.reserve(), is(TimeUnit.SECONDS.toNanos(2)));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(limiter.reserve(), is(0L));
+    }
+
+    @Test
+    public void reserveShouldLimitBurstAfterIdlePeriod() throws Exception {
+        ReflectionTestUtils.setField(limiter, "readCapacityUnits", 10.0);
+        limiter.reserve();
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        limiter.consume(new ConsumedCapacity().withCapacityUnits(10.0));
+
+        assertThat(limiter.reserve(), is(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void reserveShouldUseProvisionedCapacityOfTheTable() throws Exception {
+        when(dynamoDB.describeTable(Season.TABLE_NAME)).thenReturn(new DescribeTableResult().withTable(new TableDescription()
+                .withProvisionedThroughput(new ProvisionedThroughputDescription().withReadCapacityUnits(4L))));
+        limiter.reserve();
+        limiter.consume(new ConsumedCapacity().withCapacityUnits(4.0));
+
+        assertThat(limiter.reserve(), is(TimeUnit.SECONDS.toNanos(2)));
+        verify(dynamoDB, times(1)).describeTable(Season.TABLE_NAME);
+    }
+
+    @Test
+    public void reserveShouldNotPaceOnDemandTables() throws Exception {
+        when(dynamoDB.describeTable(Season.TABLE_NAME)).thenReturn(new DescribeTableResult().withTable(new TableDescription()
+                .withProvisionedThroughput(new ProvisionedThroughputDescription().withReadCapacityUnits(0L))));
+        limiter.reserve();
+        limiter.consume(new ConsumedCapacity().withCapacityUnits(100.0));
+
+        assertThat(limiter.reserve(), is(0L));
+    }
+
+    @Test
+    public void pageLimitShouldReadAboutOneSecondOfTheBudget() throws Exception {
+        ReflectionTestUtils.setField(limiter, "itemSizeBytes", 1024);
+        assertThat(limiter.pageLimit(), is(0));
+
+        ReflectionTestUtils.setField(limiter, "readCapacityUnits", 10.0);
+        limiter.reserve();
+        assertThat(limiter.pageLimit(), is(40));
+
+        ReflectionTestUtils.setField(limiter, "itemSizeBytes", 400 * 1024);
+        assertThat(limiter.pageLimit(), is(1));
+    }
+
+    @Test
+    public void describeTableShouldNotHoldUpOtherScanners() throws Exception {
+        AtomicBoolean scannerWentAhead = new AtomicBoolean();
+        when(dynamoDB.describeTable(Season.TABLE_NAME)).thenAnswer(invocation -> {
+            Thread scanner = new Thread(() -> {
+                limiter.consume(new ConsumedCapacity().withCapacityUnits(1.0));
+                limiter.reserve();
+                scannerWentAhead.set(true);
+            });
+            scanner.start();
+            scanner.join(TimeUnit.SECONDS.toMillis(5));
+            return new DescribeTableResult().withTable(new TableDescription()
+                    .withProvisionedThroughput(new ProvisionedThroughputDescription().withReadCapacityUnits(4L)));
+        });
+
+        limiter.reserve();
+
+        assertThat(scannerWentAhead.get(), is(true));
+        verify(dynamoDB, times(1)).describeTable(Season.TABLE_NAME);
+    }
+}
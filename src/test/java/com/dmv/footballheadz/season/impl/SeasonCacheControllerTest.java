@@ -0,0 +1,31 @@
+package com.dmv.footballheadz.season.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class SeasonCacheControllerTest {
+
+    @Test
+    public void statsShouldReportHitsAndMisses() throws Exception {
+
+        SeasonCache cache = new SeasonCache(100, 60, 5);
+        cache.get("1d", id -> Optional.empty());
+        cache.get("1d", id -> Optional.empty());
+        SeasonCacheController controller = new SeasonCacheController();
+        ReflectionTestUtils.setField(controller, "cache", cache);
+
+        ResponseEntity<Map<String, Object>> result = controller.stats();
+        assertThat(result.getStatusCode(), is(HttpStatus.OK));
+        assertThat(result.getBody().get("hitCount"), is(1L));
+        assertThat(result.getBody().get("missCount"), is(1L));
+        assertThat(result.getBody().get("size"), is(1L));
+    }
+}
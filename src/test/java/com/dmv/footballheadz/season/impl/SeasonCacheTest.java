@@ -0,0 +1,107 @@
+package com.dmv.footballheadz.season.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SeasonCacheTest {
+
+    private final SeasonCache cache = new SeasonCache(100, 60, 5);
+
+    @Test
+    public void getShouldLoadOnceAndServeFromCache() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Season season = new Season().withId("2012|GimmyDaLoot");
+        cache.get("2012|GimmyDaLoot", id -> { loads.incrementAndGet(); return Optional.of(season); });
+        Optional<Season> result = cache.get("2012|GimmyDaLoot", id -> { loads.incrementAndGet(); return Optional.of(season); });
+        assertThat(result.get(), is(equalTo(season)));
+        assertThat(loads.get(), is(1));
+        assertThat(cache.stats().hitCount(), is(1L));
+    }
+
+    @Test
+    public void getShouldCacheMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("unknown", id -> { loads.incrementAndGet(); return Optional.empty(); });
+        Optional<Season> result = cache.get("unknown", id -> { loads.incrementAndGet(); return Optional.empty(); });
+        assertThat(result, is(Optional.empty()));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    public void getShouldReturnCopiesOfCachedSeason() throws Exception {
+        Season season = new Season().withId("2012|GimmyDaLoot").withRank("1");
+        cache.put(season);
+        Season result = cache.get("2012|GimmyDaLoot", id -> Optional.empty()).get();
+        result.setRank("2");
+        assertThat(result, is(not(sameInstance(season))));
+        assertThat(cache.get("2012|GimmyDaLoot", id -> Optional.empty()).get().getRank(), is("1"));
+    }
+
+    @Test
+    public void putShouldReplaceCachedMiss() throws Exception {
+        cache.get("2012|GimmyDaLoot", id -> Optional.empty());
+        Season season = new Season().withId("2012|GimmyDaLoot");
+        cache.put(season);
+        assertThat(cache.get("2012|GimmyDaLoot", id -> Optional.empty()), is(Optional.of(season)));
+    }
+
+    @Test
+    public void putReadShouldKeepNewerVersionAndCachedMiss() throws Exception {
+        cache.put(new Season().withId("2012|GimmyDaLoot").withRank("1").withVersion(3L));
+        cache.putRead(new Season().withId("2012|GimmyDaLoot").withRank("2").withVersion(2L));
+        cache.putRead(new Season().withId("2012|GimmyDaLoot").withRank("3").withVersion(3L));
+        assertThat(cache.get("2012|GimmyDaLoot", id -> Optional.empty()).get().getRank(), is("1"));
+
+        cache.putRead(new Season().withId("2012|GimmyDaLoot").withRank("4").withVersion(4L));
+        assertThat(cache.get("2012|GimmyDaLoot", id -> Optional.empty()).get().getRank(), is("4"));
+
+        cache.get("2013|GimmyDaLoot", id -> Optional.empty());
+        cache.putRead(new Season().withId("2013|GimmyDaLoot").withVersion(1L));
+        assertThat(cache.get("2013|GimmyDaLoot", id -> Optional.empty()), is(Optional.empty()));
+
+        cache.putRead(new Season().withId("2014|GimmyDaLoot").withVersion(1L));
+        assertThat(cache.get("2014|GimmyDaLoot", id -> Optional.empty()).get().getVersion(), is(1L));
+    }
+
+    @Test
+    public void invalidateShouldForceReload() throws Exception {
+        Season season = new Season().withId("2012|GimmyDaLoot");
+        cache.put(season);
+        cache.invalidate("2012|GimmyDaLoot");
+        assertThat(cache.get("2012|GimmyDaLoot", id -> Optional.empty()), is(Optional.empty()));
+    }
+
+    @Test
+    public void getAllPresentShouldNotLoadMissingIds() throws Exception {
+        Season season = new Season().withId("2012|GimmyDaLoot");
+        cache.put(season);
+        cache.get("unknown", id -> Optional.empty());
+        Map<String, Optional<Season>> result = cache.getAllPresent(Arrays.asList("2012|GimmyDaLoot", "unknown", "other"));
+        assertThat(result.size(), is(2));
+        assertThat(result.get("2012|GimmyDaLoot"), is(Optional.of(season)));
+        assertThat(result.get("unknown"), is(Optional.empty()));
+    }
+
+    @Test
+    public void bindToShouldPublishHitsAndMisses() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.get("2012|GimmyDaLoot", id -> Optional.empty());
+        cache.get("2012|GimmyDaLoot", id -> Optional.empty());
+        assertThat(registry.get("cache.gets").tag("cache", "season").tag("result", "hit")
+                .functionCounter().count(), is(1.0));
+        assertThat(registry.get("cache.gets").tag("cache", "season").tag("result", "miss")
+                .functionCounter().count(), is(1.0));
+    }
+}
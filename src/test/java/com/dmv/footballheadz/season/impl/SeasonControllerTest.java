@@ -1,25 +1,44 @@
 package com.dmv.footballheadz.season.impl;
 
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.PreconditionFailedException;
+import com.dmv.footballheadz.season.VersionConflictException;
+import com.dmv.footballheadz.util.SeasonUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
-import static org.mockito.Mockito.when;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.*;
 
 @ExtendWith(SpringExtension.class)
@@ -34,11 +53,20 @@ class SeasonControllerTest {
     @Mock
     private SeasonValidation validation;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private SeasonImporter importer;
+
+    @Spy
+    private SeasonEtags etags = new SeasonEtags(new ObjectMapper(), 100, 60);
+
     @Test
     public void listShouldRespondWithNoContentWhenNothingInDatabase() throws Exception {
 
-        when(service.list()).thenReturn(emptyList());
-        ResponseEntity<List<Season>> result = controller.list();
+        when(service.list((Set<String>) null)).thenReturn(emptyList());
+        ResponseEntity<List<Season>> result = controller.list(null, null, null);
         assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
     }
 
@@ -47,20 +75,56 @@ class SeasonControllerTest {
 
         Season season1 = new Season().withId("1d");
         Season season2 = new Season().withId("1d2");
-        when(service.list()).thenReturn(asList(season1, season2));
-        ResponseEntity<List<Season>> result = controller.list();
+        when(service.list((Set<String>) null)).thenReturn(asList(season1, season2));
+        ResponseEntity<List<Season>> result = controller.list(null, null, null);
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(containsInAnyOrder(season1, season2)))));
     }
 
+    @Test
+    public void listStreamShouldWriteOneJsonDocumentPerLine() throws Exception {
+
+        Season season1 = new Season().withId("1d");
+        Season season2 = new Season().withId("1d2");
+        when(service.listLazily()).thenReturn(asList(season1, season2));
+        ResponseEntity<StreamingResponseBody> result = controller.listStream();
+        assertThat(result, is(responseEntityWithStatus(OK)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.getBody().writeTo(out);
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines.length, is(2));
+        assertThat(objectMapper.readValue(lines[0], Season.class), is(equalTo(season1)));
+        assertThat(objectMapper.readValue(lines[1], Season.class), is(equalTo(season2)));
+    }
+
+    @Test
+    public void listStreamShouldFlushOnlyEveryInterval() throws Exception {
+
+        List<Season> seasons = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            seasons.add(new Season().withId("1d" + i));
+        }
+        when(service.listLazily()).thenReturn(seasons);
+        AtomicInteger flushes = new AtomicInteger();
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        controller.listStream().getBody().writeTo(out);
+        assertThat(flushes.get(), is(lessThanOrEqualTo(3)));
+    }
+
     @Test
     public void listExpressionShouldRespondWithNoContentWhenNothingInDatabase() throws Exception {
 
         String year = "2012";
-        when(service.listByYear(year)).thenReturn(emptyList());
+        when(service.listByYear(year, null)).thenReturn(emptyList());
         when(validation.isValidYear(year)).thenReturn(true);
-        ResponseEntity<List<Season>> result = controller.listOfYear(year);
+        ResponseEntity<List<Season>> result = controller.listOfYear(year, null, null, null, null);
         assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
     }
 
@@ -70,19 +134,97 @@ class SeasonControllerTest {
         String year = "2020";
         Season season1 = new Season().withId("1d");
         Season season2 = new Season().withId("1d2");
-        when(service.listByYear(year)).thenReturn(asList(season1, season2));
+        when(service.listByYear(year, null)).thenReturn(asList(season1, season2));
         when(validation.isValidYear(year)).thenReturn(true);
-        ResponseEntity<List<Season>> result = controller.listOfYear(year);
+        ResponseEntity<List<Season>> result = controller.listOfYear(year, null, null, null, null);
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(containsInAnyOrder(season1, season2)))));
     }
 
+    @Test
+    public void listPageShouldRespondWithOkAndNextPageToken() throws Exception {
+
+        Season season1 = new Season().withId("1d");
+        when(validation.isValidLimit(1)).thenReturn(true);
+        when(service.list(1, null, null)).thenReturn(new Page<>(asList(season1), "token"));
+        ResponseEntity<List<Season>> result = controller.list(1, null, null);
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(contains(season1)))));
+        assertThat(result.getHeaders().getFirst(SeasonController.NEXT_PAGE_HEADER), is("token"));
+    }
+
+    @Test
+    public void listPageShouldUseDefaultPageSizeWhenOnlyTokenPassed() throws Exception {
+
+        Season season1 = new Season().withId("1d");
+        when(validation.isValidLimit(SeasonUtils.DEFAULT_PAGE_SIZE)).thenReturn(true);
+        when(service.list(SeasonUtils.DEFAULT_PAGE_SIZE, "token", null)).thenReturn(new Page<>(asList(season1), null));
+        ResponseEntity<List<Season>> result = controller.list(null, "token", null);
+        assertThat(result, is(responseEntityWithStatus(OK)));
+        assertThat(result.getHeaders().containsKey(SeasonController.NEXT_PAGE_HEADER), is(false));
+    }
+
+    @Test
+    public void listPageShouldRespondWithBadRequestForInvalidLimit() throws Exception {
+
+        when(validation.isValidLimit(0)).thenReturn(false);
+        ResponseEntity<List<Season>> result = controller.list(0, null, null);
+        assertThat(result, is(responseEntityWithStatus(BAD_REQUEST)));
+    }
+
+    @Test
+    public void listPageShouldRespondWithBadRequestForInvalidToken() throws Exception {
+
+        when(validation.isValidLimit(10)).thenReturn(true);
+        when(service.list(10, "garbage", null)).thenThrow(new IllegalArgumentException("Invalid page token"));
+        ResponseEntity<List<Season>> result = controller.list(10, "garbage", null);
+        assertThat(result, is(responseEntityWithStatus(BAD_REQUEST)));
+    }
+
+    @Test
+    public void listOfYearPageShouldRespondWithNoContentWhenLastPageIsEmpty() throws Exception {
+
+        String year = "2012";
+        when(validation.isValidYear(year)).thenReturn(true);
+        when(validation.isValidLimit(5)).thenReturn(true);
+        when(service.listByYear(year, 5, null, null)).thenReturn(new Page<>(emptyList(), null));
+        ResponseEntity<List<Season>> result = controller.listOfYear(year, 5, null, null, null);
+        assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
+    }
+
+    @Test
+    public void readBatchShouldRespondWithOkAndFoundSeasons() throws Exception {
+
+        Season season1 = new Season().withId("1d");
+        when(service.batchRead(asList("1d", "2d"))).thenReturn(asList(season1));
+        ResponseEntity<List<Season>> result = controller.readBatch(asList("1d", "2d"));
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(contains(season1)))));
+    }
+
+    @Test
+    public void readBatchShouldRespondWithNoContentWhenNothingFound() throws Exception {
+
+        when(service.batchRead(asList("1d"))).thenReturn(emptyList());
+        ResponseEntity<List<Season>> result = controller.readBatchBody(asList("1d"));
+        assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
+    }
+
+    @Test
+    public void readBatchShouldRespondWithBadRequestForBlankId() throws Exception {
+
+        ResponseEntity<List<Season>> result = controller.readBatch(asList("1d", " "));
+        assertThat(result, is(responseEntityWithStatus(BAD_REQUEST)));
+    }
+
     @Test
     public void readShouldReplyWithNotFoundIfNoSuchSeason() throws Exception {
 
-        when(service.read("1d2")).thenReturn(Optional.empty());
-        ResponseEntity<Season> result = controller.read("1d2");
+        when(service.read("1d2", null)).thenReturn(Optional.empty());
+        ResponseEntity<Season> result = controller.read("1d2", null, null);
         assertThat(result, is(responseEntityWithStatus(NOT_FOUND)));
     }
 
@@ -90,13 +232,103 @@ class SeasonControllerTest {
     public void readShouldReplyWithSeasonIfSeasonExists() throws Exception {
 
         Season season = new Season().withId("1d2");
-        when(service.read("1d2")).thenReturn(Optional.of(season));
-        ResponseEntity<Season> result = controller.read("1d2");
+        when(service.read("1d2", null)).thenReturn(Optional.of(season));
+        ResponseEntity<Season> result = controller.read("1d2", null, null);
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(equalTo(season)))));
     }
 
+    @Test
+    public void readShouldReplyWithEtagOfSeason() throws Exception {
+
+        Season season = new Season().withId("1d2").withRank("1");
+        when(service.read("1d2", null)).thenReturn(Optional.of(season));
+        ResponseEntity<Season> result = controller.read("1d2", null, null);
+        assertThat(result.getHeaders().getETag(), is(etags.register(season, etags.generation())));
+    }
+
+    @Test
+    public void readShouldReplyNotModifiedWithoutReadingWhenEtagMatches() throws Exception {
+
+        Season season = new Season().withId("1d2").withRank("1");
+        when(service.read("1d2", null)).thenReturn(Optional.of(season));
+        String etag = controller.read("1d2", null, null).getHeaders().getETag();
+
+        ResponseEntity<Season> result = controller.read("1d2", null, "\"other\", " + etag);
+
+        assertThat(result, is(responseEntityWithStatus(NOT_MODIFIED)));
+        assertThat(result.getBody(), is(nullValue()));
+        verify(service, times(1)).read("1d2", null);
+    }
+
+    @Test
+    public void readShouldReplyWithSeasonWhenEtagChanged() throws Exception {
+
+        when(service.read("1d2", null)).thenReturn(Optional.of(new Season().withId("1d2").withRank("1")));
+        String etag = controller.read("1d2", null, null).getHeaders().getETag();
+        etags.invalidate("1d2");
+        when(service.read("1d2", null)).thenReturn(Optional.of(new Season().withId("1d2").withRank("2")));
+
+        ResponseEntity<Season> result = controller.read("1d2", null, etag);
+
+        assertThat(result, is(responseEntityWithStatus(OK)));
+        assertThat(result.getHeaders().getETag(), is(not(etag)));
+    }
+
+    @Test
+    public void listExpressionShouldReplyNotModifiedWithoutReadingWhenEtagMatches() throws Exception {
+
+        String year = "2020";
+        when(service.listByYear(year, null)).thenReturn(asList(new Season().withId("1d")));
+        when(validation.isValidYear(year)).thenReturn(true);
+        String etag = controller.listOfYear(year, null, null, null, null).getHeaders().getETag();
+
+        ResponseEntity<List<Season>> result = controller.listOfYear(year, null, null, null, etag);
+
+        assertThat(result, is(responseEntityWithStatus(NOT_MODIFIED)));
+        verify(service, times(1)).listByYear(year, null);
+    }
+
+    @Test
+    public void readShouldReplyWithBadRequestForUnknownFields() throws Exception {
+
+        when(validation.isValidFields("rank,colour")).thenReturn(false);
+        ResponseEntity<Season> result = controller.read("1d2", "rank,colour", null);
+        assertThat(result, is(responseEntityWithStatus(BAD_REQUEST)));
+        verify(service, never()).read(anyString(), any());
+    }
+
+    @Test
+    public void readShouldReplyWithSelectedFieldsOnly() throws Exception {
+
+        Season season = new Season().withId("1d2").withRank("1").withTeamName("DaHogPit");
+        when(validation.isValidFields("rank")).thenReturn(true);
+        when(service.read("1d2", SeasonFields.parse("rank"))).thenReturn(Optional.of(season));
+
+        ResponseEntity<Season> result = controller.read("1d2", "rank", null);
+
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(equalTo(new Season().withId("1d2").withRank("1"))))));
+        assertThat(result.getHeaders().getETag(), is(not(etags.etag(season))));
+        assertThat(etags.ofSeason("1d2"), is(nullValue()));
+    }
+
+    @Test
+    public void listExpressionShouldPassSelectedFieldsToPage() throws Exception {
+
+        String year = "2020";
+        when(validation.isValidYear(year)).thenReturn(true);
+        when(validation.isValidFields("pct")).thenReturn(true);
+        when(validation.isValidLimit(5)).thenReturn(true);
+        when(service.listByYear(year, 5, null, SeasonFields.parse("pct"))).thenReturn(new Page<>(emptyList(), null));
+
+        ResponseEntity<List<Season>> result = controller.listOfYear(year, 5, null, "pct", null);
+
+        assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
+    }
+
     @Test
     public void createShouldReplyWithConflictIfSeasonAlreadyExists() throws Exception {
 
@@ -117,12 +349,60 @@ class SeasonControllerTest {
                 responseEntityThat(equalTo(season)))));
     }
 
+    @Test
+    public void createBatchShouldReplyWithOkWhenAllSeasonsSaved() throws Exception {
+
+        Season season1 = new Season().withId("2012|DaHogPit").withYear("2012").withTeamName("DaHogPit");
+        Season season2 = new Season().withId("2012|GimmyDaLoot").withYear("2012").withTeamName("GimmyDaLoot");
+        when(service.batchSave(asList(season1, season2))).thenReturn(emptyList());
+        ResponseEntity<List<BatchItemResult>> result = controller.createBatch(asList(season1, season2));
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(contains(
+                        new BatchItemResult("2012|DaHogPit", BatchItemResult.Status.SAVED, null),
+                        new BatchItemResult("2012|GimmyDaLoot", BatchItemResult.Status.SAVED, null))))));
+    }
+
+    @Test
+    public void createBatchShouldReportInvalidAndFailedSeasons() throws Exception {
+
+        Season invalid = new Season().withId("2012|DaHogPit").withYear("2013").withTeamName("DaHogPit");
+        Season duplicate = new Season().withId("2012|GimmyDaLoot").withYear("2012").withTeamName("GimmyDaLoot");
+        Season failed = new Season().withId("2012|GimmyDaLoot").withYear("2012").withTeamName("GimmyDaLoot");
+        when(validation.invalidReason(invalid)).thenReturn("Id must be year|teamName");
+        when(service.batchSave(asList(failed))).thenReturn(asList(failed));
+        ResponseEntity<List<BatchItemResult>> result = controller.createBatch(asList(invalid, failed, duplicate));
+        assertThat(result, is(responseEntityWithStatus(MULTI_STATUS)));
+        assertThat(result.getBody().get(0).getStatus(), is(BatchItemResult.Status.INVALID));
+        assertThat(result.getBody().get(1).getStatus(), is(BatchItemResult.Status.FAILED));
+        assertThat(result.getBody().get(2).getStatus(), is(BatchItemResult.Status.INVALID));
+    }
+
+    @Test
+    public void createBatchShouldReplyWithBadRequestWhenEmpty() throws Exception {
+
+        ResponseEntity<List<BatchItemResult>> result = controller.createBatch(emptyList());
+        assertThat(result, is(responseEntityWithStatus(BAD_REQUEST)));
+    }
+
+    @Test
+    public void importCsvShouldReplyWithOkAndImportReport() throws Exception {
+
+        ImportReport report = new ImportReport();
+        ByteArrayInputStream body = new ByteArrayInputStream(new byte[0]);
+        when(importer.importSeasons(body, SeasonImporter.Format.CSV)).thenReturn(report);
+        ResponseEntity<ImportReport> result = controller.importCsv(body);
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(sameInstance(report)))));
+    }
+
     @Test
     public void putShouldReplyWithNotFoundIfSeasonDoesNotExist() throws Exception {
 
         Season newSeasonData = new Season().withId("1d2").withTeamName("GimmyDaLoot");
-        when(service.replace(newSeasonData)).thenReturn(Optional.empty());
-        ResponseEntity<Season> result = controller.put("1d2", new Season().withTeamName("GimmyDaLoot"));
+        when(service.replace(newSeasonData, null)).thenReturn(Optional.empty());
+        ResponseEntity<Season> result = controller.put("1d2", new Season().withTeamName("GimmyDaLoot"), null);
         assertThat(result, is(responseEntityWithStatus(NOT_FOUND)));
     }
 
@@ -130,8 +410,8 @@ class SeasonControllerTest {
     public void putShouldReplyWithUpdatedSeasonAndOkIfSeasonExists() throws Exception {
 
         Season newSeasonData = new Season().withId("1d2").withTeamName("GimmyDaLoot");
-        when(service.replace(newSeasonData)).thenReturn(Optional.of(newSeasonData));
-        ResponseEntity<Season> result = controller.put("1d2", new Season().withTeamName("GimmyDaLoot"));
+        when(service.replace(newSeasonData, null)).thenReturn(Optional.of(newSeasonData));
+        ResponseEntity<Season> result = controller.put("1d2", new Season().withTeamName("GimmyDaLoot"), null);
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(equalTo(newSeasonData)))));
@@ -141,8 +421,8 @@ class SeasonControllerTest {
     public void patchShouldReplyWithNotFoundIfSeasonDoesNotExist() throws Exception {
 
         Season newSeasonData = new Season().withId("1d2").withTeamName("GimmyDaLoot");
-        when(service.update(newSeasonData)).thenReturn(Optional.empty());
-        ResponseEntity<Season> result = controller.patch("1d2", new Season().withTeamName("GimmyDaLoot"));
+        when(service.update(newSeasonData, null)).thenReturn(Optional.empty());
+        ResponseEntity<Season> result = controller.patch("1d2", new Season().withTeamName("GimmyDaLoot"), null);
         assertThat(result, is(responseEntityWithStatus(NOT_FOUND)));
     }
 
@@ -150,13 +430,62 @@ class SeasonControllerTest {
     public void patchShouldReplyWithUpdatedSeasonAndOkIfSeasonExists() throws Exception {
 
         Season newSeasonData = new Season().withId("1d2").withTeamName("GimmyDaLoot");
-        when(service.update(newSeasonData)).thenReturn(Optional.of(newSeasonData));
-        ResponseEntity<Season> result = controller.patch("1d2", new Season().withTeamName("GimmyDaLoot"));
+        when(service.update(newSeasonData, null)).thenReturn(Optional.of(newSeasonData));
+        ResponseEntity<Season> result = controller.patch("1d2", new Season().withTeamName("GimmyDaLoot"), null);
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(equalTo(newSeasonData)))));
     }
 
+    @Test
+    public void putShouldReplyWithEtagOfWrittenSeason() throws Exception {
+
+        Season newSeasonData = new Season().withId("1d2").withTeamName("GimmyDaLoot").withVersion(4L);
+        when(service.replace(any(), isNull())).thenReturn(Optional.of(newSeasonData));
+        ResponseEntity<Season> result = controller.put("1d2", new Season().withTeamName("GimmyDaLoot"), null);
+        assertThat(result.getHeaders().getETag(), is(etags.etag(newSeasonData)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void putShouldCheckIfMatchAgainstStoredSeason() throws Exception {
+
+        Season stored = new Season().withId("1d2").withRank("1").withVersion(3L);
+        String etag = etags.etag(stored);
+        ArgumentCaptor<Predicate<Season>> precondition = ArgumentCaptor.forClass(Predicate.class);
+        when(service.replace(any(), precondition.capture())).thenReturn(Optional.of(stored));
+
+        controller.put("1d2", new Season().withRank("2"), "\"other\", " + etag);
+
+        assertThat(precondition.getValue().test(stored), is(true));
+        assertThat(precondition.getValue().test(new Season(stored).withVersion(4L)), is(false));
+        assertThat(SeasonEtags.matchesStrongly("W/" + etag, etag), is(false));
+    }
+
+    @Test
+    public void putShouldReplyWithPreconditionFailedWhenSeasonChanged() throws Exception {
+
+        when(service.replace(any(), any())).thenThrow(new PreconditionFailedException("1d2"));
+        ResponseEntity<Season> result = controller.put("1d2", new Season().withRank("2"), "\"stale\"");
+        assertThat(result, is(responseEntityWithStatus(PRECONDITION_FAILED)));
+    }
+
+    @Test
+    public void patchShouldReplyWithPreconditionFailedWhenIfMatchGivenForMissingSeason() throws Exception {
+
+        when(service.update(any(), any())).thenReturn(Optional.empty());
+        ResponseEntity<Season> result = controller.patch("1d2", new Season().withRank("2"), "*");
+        assertThat(result, is(responseEntityWithStatus(PRECONDITION_FAILED)));
+    }
+
+    @Test
+    public void patchShouldReplyWithConflictWhenRetriesRunOut() throws Exception {
+
+        when(service.update(any(), isNull())).thenThrow(new VersionConflictException("1d2"));
+        ResponseEntity<Season> result = controller.patch("1d2", new Season().withRank("2"), null);
+        assertThat(result, is(responseEntityWithStatus(CONFLICT)));
+    }
+
     @Test
     public void deleteShouldRespondWithNotFoundIfSeasonDoesNotExist() throws Exception {
 
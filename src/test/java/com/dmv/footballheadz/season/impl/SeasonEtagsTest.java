@@ -0,0 +1,67 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ExtendWith(SpringExtension.class)
+public class SeasonEtagsTest {
+
+    private final SeasonEtags etags = new SeasonEtags(new ObjectMapper(), 100, 60);
+
+    @Test
+    public void equalContentShouldGetEqualEtags() throws Exception {
+        String etag = etags.register(new Season().withId("2012|A").withRank("1"), etags.generation());
+
+        assertThat(etags.register(new Season().withId("2012|A").withRank("1"), etags.generation()), is(etag));
+        assertThat(etags.register(new Season().withId("2012|A").withRank("2"), etags.generation()), is(not(etag)));
+        assertThat(etag.startsWith("\"") && etag.endsWith("\""), is(true));
+    }
+
+    @Test
+    public void registerShouldRememberEtagOfSeasonAndYear() throws Exception {
+        Season season = new Season().withId("2012|A");
+        String etag = etags.register(season, etags.generation());
+        String yearEtag = etags.registerYear("2012", asList(season), etags.generation());
+
+        assertThat(etags.ofSeason("2012|A"), is(etag));
+        assertThat(etags.ofYear("2012"), is(yearEtag));
+    }
+
+    @Test
+    public void invalidateShouldForgetSeasonAndYearListings() throws Exception {
+        Season season = new Season().withId("2012|A");
+        etags.register(season, etags.generation());
+        etags.registerYear("2013", asList(season), etags.generation());
+
+        etags.invalidate("2012|A");
+
+        assertThat(etags.ofSeason("2012|A"), is(nullValue()));
+        assertThat(etags.ofYear("2013"), is(nullValue()));
+    }
+
+    @Test
+    public void registerShouldSkipReadsThatOverlappedAWrite() throws Exception {
+        long generation = etags.generation();
+        etags.invalidate("2012|A");
+
+        String etag = etags.register(new Season().withId("2012|A"), generation);
+
+        assertThat(etag, is(notNullValue()));
+        assertThat(etags.ofSeason("2012|A"), is(nullValue()));
+    }
+
+    @Test
+    public void matchesShouldCompareWeaklyAgainstEveryListedEtag() throws Exception {
+        assertThat(SeasonEtags.matches("\"a\", W/\"b\"", "\"b\""), is(true));
+        assertThat(SeasonEtags.matches("*", "\"b\""), is(true));
+        assertThat(SeasonEtags.matches("\"a\"", "\"b\""), is(false));
+        assertThat(SeasonEtags.matches(null, "\"b\""), is(false));
+        assertThat(SeasonEtags.matches("\"b\"", null), is(false));
+    }
+}
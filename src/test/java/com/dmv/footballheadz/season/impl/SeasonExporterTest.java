@@ -0,0 +1,110 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class SeasonExporterTest {
+
+    @Mock
+    private SeasonRepository repository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private SeasonExporter exporter;
+
+    @TempDir
+    Path directory;
+
+    private ExecutorService executor;
+
+    private final Season season1 = new Season().withId("2012|DaHogPit");
+    private final Season season2 = new Season().withId("2012|GimmyDaLoot");
+    private final Season season3 = new Season().withId("2013|DaHogPit");
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(exporter, "scanExecutor", executor);
+        ReflectionTestUtils.setField(exporter, "segments", 2);
+        ReflectionTestUtils.setField(exporter, "pagesPerCheckpoint", 1);
+        when(repository.readSegmentPage(0, 2, 0, null)).thenReturn(new Page<>(asList(season1), "next"));
+        when(repository.readSegmentPage(1, 2, 0, null)).thenReturn(new Page<>(asList(season3), null));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void exportShouldWriteEverySegmentIntoOneGzipFile() throws Exception {
+        when(repository.readSegmentPage(0, 2, 0, "next")).thenReturn(new Page<>(asList(season2), null));
+
+        long items = exporter.export(directory);
+
+        assertThat(items, is(3L));
+        assertThat(readExport(), containsInAnyOrder(season1, season2, season3));
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count(), is(1L));
+        }
+    }
+
+    @Test
+    public void exportShouldResumeFromLastCheckpoint() throws Exception {
+        when(repository.readSegmentPage(0, 2, 0, "next"))
+                .thenThrow(new IllegalStateException("Simulated failure"))
+                .thenReturn(new Page<>(asList(season2), null));
+
+        assertThrows(IOException.class, () -> exporter.export(directory));
+        long items = exporter.export(directory);
+
+        assertThat(items, is(3L));
+        assertThat(readExport(), containsInAnyOrder(season1, season2, season3));
+        verify(repository, times(1)).readSegmentPage(0, 2, 0, null);
+        verify(repository, times(1)).readSegmentPage(1, 2, 0, null);
+    }
+
+    private List<Season> readExport() throws IOException {
+        List<Season> seasons = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(
+                Files.newInputStream(directory.resolve(SeasonExporter.EXPORT_FILE))), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                seasons.add(objectMapper.readValue(line, Season.class));
+            }
+        }
+        return seasons;
+    }
+}
@@ -0,0 +1,51 @@
+package com.dmv.footballheadz.season.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+public class SeasonFieldsTest {
+
+    @Test
+    public void parseShouldAlwaysSelectTheId() throws Exception {
+        assertThat(SeasonFields.parse(" rank, teamName,rank"), contains("id", "rank", "teamName"));
+    }
+
+    @Test
+    public void parseShouldSelectAllFieldsWhenBlank() throws Exception {
+        assertThat(SeasonFields.parse(null), is(nullValue()));
+        assertThat(SeasonFields.parse(" "), is(nullValue()));
+    }
+
+    @Test
+    public void parseShouldRejectUnknownFields() throws Exception {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SeasonFields.parse("rank,colour"));
+    }
+
+    @Test
+    public void projectionExpressionShouldUseAttributeNamePlaceholders() throws Exception {
+        Map<String, String> ean = new HashMap<>();
+
+        String projection = SeasonFields.projectionExpression(SeasonFields.parse("year,pointsFor"), ean);
+
+        assertThat(projection, is("#Id, #Year, #PointsFor"));
+        assertThat(ean.get("#PointsFor"), is("PointsFor"));
+    }
+
+    @Test
+    public void projectShouldCopyOnlyTheSelectedFields() throws Exception {
+        Season season = new Season().withId("2012|DaHogPit").withYear("2012").withRank("1").withPct(0.75);
+
+        Season projected = SeasonFields.project(season, SeasonFields.parse("pct"));
+
+        assertThat(projected, is(new Season().withId("2012|DaHogPit").withPct(0.75)));
+        assertThat(SeasonFields.project(season, null), is(season));
+    }
+}
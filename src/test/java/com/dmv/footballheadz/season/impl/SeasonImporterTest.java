@@ -0,0 +1,143 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class SeasonImporterTest {
+
+    @Mock
+    private SeasonService service;
+
+    @Spy
+    private SeasonValidation seasonValidation = new SeasonValidation();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private SeasonImporter importer;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(importer, "importExecutor", executor);
+        ReflectionTestUtils.setField(importer, "batchSize", 2);
+        ReflectionTestUtils.setField(importer, "maxInFlight", 2);
+        when(service.batchSave(anyList())).thenReturn(emptyList());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importCsvShouldWriteValidRowsInBatches() throws Exception {
+        String csv = "id,year,teamName,rank,pct,record\n"
+                + "2012|DaHogPit,2012,DaHogPit,1,0.75,\"9-3-0\"\n"
+                + "2012|GimmyDaLoot,2012,GimmyDaLoot,2,,8-4-0\n"
+                + "\n"
+                + "2013|DaHogPit,2013,DaHogPit,3,0.5,6-6-0\n";
+
+        ImportReport report = importer.importSeasons(stream(csv), SeasonImporter.Format.CSV);
+
+        assertThat(report.getRowsRead(), is(3L));
+        assertThat(report.getSaved(), is(3L));
+        assertThat(report.getRejected(), is(0L));
+        verify(service).batchSave(asList(
+                new Season().withId("2012|DaHogPit").withYear("2012").withTeamName("DaHogPit")
+                        .withRank("1").withPct(0.75).withRecord("9-3-0"),
+                new Season().withId("2012|GimmyDaLoot").withYear("2012").withTeamName("GimmyDaLoot")
+                        .withRank("2").withRecord("8-4-0")));
+        verify(service, times(2)).batchSave(anyList());
+    }
+
+    @Test
+    public void importNdjsonShouldRejectMalformedAndInvalidRows() throws Exception {
+        String ndjson = "{\"id\":\"2012|DaHogPit\",\"year\":\"2012\",\"teamName\":\"DaHogPit\"}\n"
+                + "{not json\n"
+                + "{\"id\":\"2012|DaHogPit\",\"year\":\"2013\",\"teamName\":\"DaHogPit\"}\n";
+
+        ImportReport report = importer.importSeasons(stream(ndjson), SeasonImporter.Format.NDJSON);
+
+        assertThat(report.getRowsRead(), is(3L));
+        assertThat(report.getSaved(), is(1L));
+        assertThat(report.getRejected(), is(2L));
+        assertThat(report.getRejectedRows().get(0).getLine(), is(2L));
+        assertThat(report.getRejectedRows().get(1).getId(), is("2012|DaHogPit"));
+    }
+
+    @Test
+    public void importShouldReportSeasonsThatCouldNotBeWritten() throws Exception {
+        Season season = new Season().withId("2012|DaHogPit").withYear("2012").withTeamName("DaHogPit");
+        when(service.batchSave(anyList())).thenReturn(asList(season));
+        String ndjson = "{\"id\":\"2012|DaHogPit\",\"year\":\"2012\",\"teamName\":\"DaHogPit\"}\n";
+
+        ImportReport report = importer.importSeasons(stream(ndjson), SeasonImporter.Format.NDJSON);
+
+        assertThat(report.getSaved(), is(0L));
+        assertThat(report.getFailed(), is(1L));
+        assertThat(report.getFailedIds(), contains("2012|DaHogPit"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void groupsSharingAnIdShouldBeWrittenInFileOrder() throws Exception {
+        ReflectionTestUtils.setField(importer, "batchSize", 1);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        when(service.batchSave(anyList())).thenAnswer(invocation -> {
+            Season season = ((List<Season>) invocation.getArgument(0)).get(0);
+            events.add("start " + season.getRank());
+            if ("1".equals(season.getRank())) {
+                Thread.sleep(200);
+            }
+            events.add("end " + season.getRank());
+            return emptyList();
+        });
+        String ndjson = "{\"id\":\"2012|DaHogPit\",\"year\":\"2012\",\"teamName\":\"DaHogPit\",\"rank\":\"1\"}\n"
+                + "{\"id\":\"2012|DaHogPit\",\"year\":\"2012\",\"teamName\":\"DaHogPit\",\"rank\":\"2\"}\n";
+
+        ImportReport report = importer.importSeasons(stream(ndjson), SeasonImporter.Format.NDJSON);
+
+        assertThat(report.getSaved(), is(2L));
+        assertThat(events, contains("start 1", "end 1", "start 2", "end 2"));
+    }
+
+    @Test
+    public void parseCsvLineShouldHandleQuotedCommasAndQuotes() throws Exception {
+        List<String> values = SeasonImporter.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\",");
+        assertThat(values, contains("a", "b, c", "say \"hi\"", ""));
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,20 +1,58 @@
 package com.dmv.footballheadz.season.impl;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.VersionConflictException;
+import com.dmv.footballheadz.util.PageTokens;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -29,9 +67,17 @@ public class SeasonRepositoryTest {
     @Mock
     private DynamoDBMapper dbMapper;
 
+    @Mock
+    private AmazonDynamoDB dynamoDB;
+
     @InjectMocks
     private SeasonRepository repository;
 
+    @BeforeEach
+    public void setUp() {
+        when(dynamoDB.describeTable(Season.TABLE_NAME)).thenReturn(yearIndex(IndexStatus.ACTIVE));
+    }
+
     @Test
     public void readExpressionShouldFilterTheScan() throws Exception {
         PaginatedScanList expectedResult = mock(PaginatedScanList.class);
@@ -49,6 +95,117 @@ public class SeasonRepositoryTest {
         verify(expectedResult).loadAllResults();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void queryExpressionShouldQueryTheIndex() throws Exception {
+        PaginatedQueryList expectedResult = mock(PaginatedQueryList.class);
+        when(dbMapper.query(eq(Season.class), any(DynamoDBQueryExpression.class))).thenReturn(expectedResult);
+
+        DynamoDBQueryExpression<Season> dynamoDBQueryExpression = new DynamoDBQueryExpression<Season>()
+                .withIndexName(Season.YEAR_INDEX)
+                .withConsistentRead(false);
+
+        List<Season> result = repository.queryExpression(dynamoDBQueryExpression);
+        assertThat(result, is(expectedResult));
+        verify(dbMapper).query(Season.class, dynamoDBQueryExpression);
+        verify(expectedResult).loadAllResults();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readByYearShouldQueryTheYearIndex() throws Exception {
+        PaginatedQueryList expectedResult = mock(PaginatedQueryList.class);
+        when(dbMapper.query(eq(Season.class), any(DynamoDBQueryExpression.class))).thenReturn(expectedResult);
+
+        List<Season> result = repository.readByYear("2012");
+
+        assertThat(result, is(expectedResult));
+        verify(dbMapper).query(eq(Season.class), argThat((DynamoDBQueryExpression<Season> expression) ->
+                Season.YEAR_INDEX.equals(expression.getIndexName()) && !expression.isConsistentRead()
+                        && "2012".equals(expression.getExpressionAttributeValues().get(":val").getS())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readByYearShouldScanUntilTheYearIndexIsActive() throws Exception {
+        ReflectionTestUtils.setField(repository, "yearIndexRefreshSeconds", 3600L);
+        when(dynamoDB.describeTable(Season.TABLE_NAME)).thenReturn(yearIndex(IndexStatus.CREATING));
+        PaginatedScanList expectedResult = mock(PaginatedScanList.class);
+        when(dbMapper.scan(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(expectedResult);
+
+        assertThat(repository.readByYear("2012"), is(expectedResult));
+        assertThat(repository.readByYear("2012"), is(expectedResult));
+
+        verify(dbMapper, times(2)).scan(eq(Season.class), argThat((DynamoDBScanExpression expression) ->
+                "#Year = :val".equals(expression.getFilterExpression())
+                        && "2012".equals(expression.getExpressionAttributeValues().get(":val").getS())));
+        verify(dbMapper, never()).query(eq(Season.class), any(DynamoDBQueryExpression.class));
+        verify(dynamoDB, times(1)).describeTable(Season.TABLE_NAME);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readByYearShouldQueryOnceTheYearIndexTurnsActive() throws Exception {
+        when(dynamoDB.describeTable(Season.TABLE_NAME)).thenReturn(yearIndex(IndexStatus.CREATING), yearIndex(IndexStatus.ACTIVE));
+        when(dbMapper.scan(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(mock(PaginatedScanList.class));
+        when(dbMapper.query(eq(Season.class), any(DynamoDBQueryExpression.class))).thenReturn(mock(PaginatedQueryList.class));
+
+        repository.readByYear("2012");
+        repository.readByYear("2012");
+        repository.readByYear("2012");
+
+        verify(dbMapper, times(1)).scan(eq(Season.class), any(DynamoDBScanExpression.class));
+        verify(dbMapper, times(2)).query(eq(Season.class), any(DynamoDBQueryExpression.class));
+        verify(dynamoDB, times(2)).describeTable(Season.TABLE_NAME);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readByYearPageShouldPageTheScanUntilTheYearIndexIsActive() throws Exception {
+        when(dynamoDB.describeTable(Season.TABLE_NAME)).thenReturn(yearIndex(IndexStatus.CREATING));
+        ScanResultPage<Season> scanPage = new ScanResultPage<>();
+        scanPage.setResults(Collections.emptyList());
+        scanPage.setLastEvaluatedKey(Collections.singletonMap("Id", new AttributeValue().withS("2012|GimmyDaLoot")));
+        when(dbMapper.scanPage(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(scanPage);
+        String token = PageTokens.encode(Collections.singletonMap("Id", new AttributeValue().withS("2012|DaHogPit")));
+
+        Page<Season> result = repository.readByYearPage("2012", 10, token);
+
+        assertThat(PageTokens.decode(result.getNextToken()), is(scanPage.getLastEvaluatedKey()));
+        verify(dbMapper).scanPage(eq(Season.class), argThat((DynamoDBScanExpression expression) ->
+                "#Year = :val".equals(expression.getFilterExpression()) && expression.getLimit() == 10
+                        && "2012|DaHogPit".equals(expression.getExclusiveStartKey().get("Id").getS())));
+        verify(dbMapper, never()).queryPage(eq(Season.class), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readByTeamShouldFilterTheScanByTeamName() throws Exception {
+        PaginatedScanList expectedResult = mock(PaginatedScanList.class);
+        when(dbMapper.scan(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(expectedResult);
+
+        List<Season> result = repository.readByTeam("DaHogPit");
+
+        assertThat(result, is(expectedResult));
+        verify(dbMapper).scan(eq(Season.class), argThat((DynamoDBScanExpression expression) ->
+                "#TeamName = :val".equals(expression.getFilterExpression())
+                        && "DaHogPit".equals(expression.getExpressionAttributeValues().get(":val").getS())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readByYearWithFieldsShouldProjectTheQuery() throws Exception {
+        PaginatedQueryList expectedResult = mock(PaginatedQueryList.class);
+        when(dbMapper.query(eq(Season.class), any(DynamoDBQueryExpression.class))).thenReturn(expectedResult);
+
+        repository.readByYear("2012", SeasonFields.parse("rank,pct"));
+
+        verify(dbMapper).query(eq(Season.class), argThat((DynamoDBQueryExpression<Season> expression) ->
+                "#Id, #Rank, #Pct".equals(expression.getProjectionExpression())
+                        && "Year".equals(expression.getExpressionAttributeNames().get("#Year"))
+                        && "Pct".equals(expression.getExpressionAttributeNames().get("#Pct"))));
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void readAllShouldScanTheTable() throws Exception {
@@ -59,6 +216,202 @@ public class SeasonRepositoryTest {
         verify(expectedResult).loadAllResults();
     }
 
+    @Test
+    public void readAllShouldPaceEveryPageWhenRateLimited() throws Exception {
+        ScanRateLimiter scanLimiter = mock(ScanRateLimiter.class);
+        ReflectionTestUtils.setField(repository, "scanLimiter", scanLimiter);
+        Season season1 = new Season().withId("1d");
+        Season season2 = new Season().withId("2d");
+        ConsumedCapacity consumed = new ConsumedCapacity().withCapacityUnits(0.5);
+        ScanResultPage<Season> first = new ScanResultPage<>();
+        first.setResults(Collections.singletonList(season1));
+        first.setLastEvaluatedKey(Collections.singletonMap("Id", new AttributeValue().withS("1d")));
+        first.setConsumedCapacity(consumed);
+        ScanResultPage<Season> second = new ScanResultPage<>();
+        second.setResults(Collections.singletonList(season2));
+        second.setConsumedCapacity(consumed);
+        when(dbMapper.scanPage(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(first, second);
+
+        List<Season> result = repository.readAll();
+
+        assertThat(result, is(Arrays.asList(season1, season2)));
+        verify(scanLimiter, times(2)).acquire();
+        verify(scanLimiter, times(2)).consume(consumed);
+        verify(dbMapper, never()).scan(eq(Season.class), any(DynamoDBScanExpression.class));
+    }
+
+    @Test
+    public void pacedScanShouldLimitPagesToTheBudgetWithoutAPageSize() throws Exception {
+        ScanRateLimiter scanLimiter = mock(ScanRateLimiter.class);
+        ReflectionTestUtils.setField(repository, "scanLimiter", scanLimiter);
+        when(scanLimiter.pageLimit()).thenReturn(2);
+        List<Integer> limits = new ArrayList<>();
+        ScanResultPage<Season> page = new ScanResultPage<>();
+        page.setResults(Collections.singletonList(new Season().withId("1d")));
+        when(dbMapper.scanPage(eq(Season.class), any(DynamoDBScanExpression.class))).thenAnswer(invocation -> {
+            limits.add(invocation.<DynamoDBScanExpression>getArgument(1).getLimit());
+            return page;
+        });
+
+        repository.readAll();
+        ReflectionTestUtils.setField(repository, "scanPageSize", 50);
+        repository.readAll();
+
+        assertThat(limits, is(Arrays.asList(2, 50)));
+    }
+
+    @Test
+    public void readAllLazilyShouldPaceEveryPageWhenRateLimited() throws Exception {
+        ScanRateLimiter scanLimiter = mock(ScanRateLimiter.class);
+        ReflectionTestUtils.setField(repository, "scanLimiter", scanLimiter);
+        ScanResultPage<Season> page = new ScanResultPage<>();
+        page.setResults(Collections.singletonList(new Season().withId("1d")));
+        when(dbMapper.scanPage(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(page);
+
+        List<Season> result = new ArrayList<>();
+        repository.readAllLazily().forEach(result::add);
+
+        assertThat(result, is(Collections.singletonList(new Season().withId("1d"))));
+        verify(scanLimiter).acquire();
+    }
+
+    @Test
+    public void readAllShouldMergeSegmentsInOrderWhenParallelScanConfigured() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(repository, "scanExecutor", executor);
+        ReflectionTestUtils.setField(repository, "scanSegments", 2);
+        ReflectionTestUtils.setField(repository, "scanPageSize", 50);
+        Season season1 = new Season().withId("1d");
+        Season season2 = new Season().withId("2d");
+        Season season3 = new Season().withId("3d");
+        Map<String, AttributeValue> lastKey = Collections.singletonMap("Id", new AttributeValue().withS("1d"));
+        when(dbMapper.scanPage(eq(Season.class), any(DynamoDBScanExpression.class))).thenAnswer(invocation -> {
+            DynamoDBScanExpression expression = invocation.getArgument(1);
+            ScanResultPage<Season> page = new ScanResultPage<>();
+            if (expression.getSegment() == 1) {
+                page.setResults(Collections.singletonList(season3));
+            } else if (expression.getExclusiveStartKey() == null) {
+                page.setResults(Collections.singletonList(season1));
+                page.setLastEvaluatedKey(lastKey);
+            } else {
+                page.setResults(Collections.singletonList(season2));
+            }
+            return page;
+        });
+
+        try {
+            List<Season> result = repository.readAll();
+            assertThat(result, is(Arrays.asList(season1, season2, season3)));
+            verify(dbMapper, times(3)).scanPage(eq(Season.class), argThat((DynamoDBScanExpression expression) ->
+                    expression.getTotalSegments() == 2 && expression.getLimit() == 50));
+            verify(dbMapper, never()).scan(eq(Season.class), any(DynamoDBScanExpression.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readAllLazilyShouldScanInIterationOnlyMode() throws Exception {
+        PaginatedScanList expectedResult = mock(PaginatedScanList.class);
+        when(dbMapper.scan(eq(Season.class), any(DynamoDBScanExpression.class), any(DynamoDBMapperConfig.class)))
+                .thenReturn(expectedResult);
+        Iterable<Season> result = repository.readAllLazily();
+        assertThat(result, is(expectedResult));
+        verify(dbMapper).scan(eq(Season.class), any(DynamoDBScanExpression.class), argThat((DynamoDBMapperConfig config) ->
+                config.getPaginationLoadingStrategy() == DynamoDBMapperConfig.PaginationLoadingStrategy.ITERATION_ONLY));
+        verify(expectedResult, never()).loadAllResults();
+    }
+
+    @Test
+    public void readPageShouldScanFromTheDecodedStartKey() throws Exception {
+        Season season = new Season().withId("2012|GimmyDaLoot");
+        Map<String, AttributeValue> lastKey = Collections.singletonMap("Id", new AttributeValue().withS("2012|GimmyDaLoot"));
+        ScanResultPage<Season> scanPage = new ScanResultPage<>();
+        scanPage.setResults(Collections.singletonList(season));
+        scanPage.setLastEvaluatedKey(lastKey);
+        when(dbMapper.scanPage(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(scanPage);
+
+        String token = PageTokens.encode(Collections.singletonMap("Id", new AttributeValue().withS("2011|DaHogPit")));
+        Page<Season> result = repository.readPage(10, token);
+
+        assertThat(result.getItems(), is(Collections.singletonList(season)));
+        assertThat(PageTokens.decode(result.getNextToken()), is(lastKey));
+        verify(dbMapper).scanPage(eq(Season.class), argThat((DynamoDBScanExpression expression) ->
+                expression.getLimit() == 10
+                        && "2011|DaHogPit".equals(expression.getExclusiveStartKey().get("Id").getS())));
+    }
+
+    @Test
+    public void readByYearPageShouldRejectTokenOfTheTableListing() throws Exception {
+        String token = PageTokens.encode(Collections.singletonMap("Id", new AttributeValue().withS("2012|DaHogPit")));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> repository.readByYearPage("2012", 10, token));
+        verify(dbMapper, never()).queryPage(eq(Season.class), any());
+    }
+
+    @Test
+    public void readByYearPageShouldRejectTokenOfAnotherYear() throws Exception {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("Id", new AttributeValue().withS("2011|DaHogPit"));
+        key.put("Year", new AttributeValue().withS("2011"));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> repository.readByYearPage("2012", 10, PageTokens.encode(key)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readByYearPageShouldQueryFromTokenOfTheSameYear() throws Exception {
+        QueryResultPage<Season> queryPage = new QueryResultPage<>();
+        queryPage.setResults(Collections.emptyList());
+        when(dbMapper.queryPage(eq(Season.class), any(DynamoDBQueryExpression.class))).thenReturn(queryPage);
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("Id", new AttributeValue().withS("2012|DaHogPit"));
+        key.put("Year", new AttributeValue().withS("2012"));
+
+        repository.readByYearPage("2012", 10, PageTokens.encode(key));
+
+        verify(dbMapper).queryPage(eq(Season.class), argThat((DynamoDBQueryExpression<Season> expression) ->
+                key.equals(expression.getExclusiveStartKey())));
+    }
+
+    @Test
+    public void readPageShouldRejectTokenOfAYearListing() throws Exception {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("Id", new AttributeValue().withS("2012|DaHogPit"));
+        key.put("Year", new AttributeValue().withS("2012"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> repository.readPage(10, PageTokens.encode(key)));
+    }
+
+    @Test
+    public void readSegmentPageShouldScanTheGivenSegment() throws Exception {
+        ScanResultPage<Season> scanPage = new ScanResultPage<>();
+        scanPage.setResults(Collections.emptyList());
+        when(dbMapper.scanPage(eq(Season.class), any(DynamoDBScanExpression.class))).thenReturn(scanPage);
+
+        Page<Season> result = repository.readSegmentPage(1, 4, 0, null);
+
+        assertThat(result.hasNext(), is(false));
+        verify(dbMapper).scanPage(eq(Season.class), argThat((DynamoDBScanExpression expression) ->
+                expression.getSegment() == 1 && expression.getTotalSegments() == 4 && expression.getLimit() == null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void queryExpressionPageShouldReturnNoTokenOnLastPage() throws Exception {
+        QueryResultPage<Season> queryPage = new QueryResultPage<>();
+        queryPage.setResults(Collections.emptyList());
+        when(dbMapper.queryPage(eq(Season.class), any(DynamoDBQueryExpression.class))).thenReturn(queryPage);
+
+        Page<Season> result = repository.queryExpressionPage(new DynamoDBQueryExpression<Season>(), 5, null);
+
+        assertThat(result.hasNext(), is(false));
+        verify(dbMapper).queryPage(eq(Season.class), argThat((DynamoDBQueryExpression<Season> expression) ->
+                expression.getLimit() == 5 && expression.getExclusiveStartKey() == null));
+    }
+
     @Test
     public void readShouldReturnEmptyOptionalWhenNoResult() throws Exception {
         when(dbMapper.load(Season.class, "Id12x4")).thenReturn(null);
@@ -74,6 +427,69 @@ public class SeasonRepositoryTest {
         assertThat(result, is(equalTo(customer)));
     }
 
+    @Test
+    public void readShouldServeRepeatedReadsFromCache() throws Exception {
+        ReflectionTestUtils.setField(repository, "cache", new SeasonCache(100, 60, 5));
+        Season customer = new Season().withId("Id12x4");
+        when(dbMapper.load(Season.class, "Id12x4")).thenReturn(customer);
+        repository.read("Id12x4");
+        Season result = repository.read("Id12x4").get();
+        assertThat(result, is(equalTo(customer)));
+        verify(dbMapper, times(1)).load(Season.class, "Id12x4");
+    }
+
+    @Test
+    public void readWithFieldsShouldProjectTheGetItemBypassingTheCache() throws Exception {
+        ReflectionTestUtils.setField(repository, "cache", new SeasonCache(100, 60, 5));
+        when(dynamoDB.getItem(any(GetItemRequest.class))).thenReturn(new GetItemResult());
+
+        assertThat(repository.read("Id12x4", SeasonFields.parse("teamName")), is(Optional.empty()));
+
+        verify(dynamoDB).getItem(argThat((GetItemRequest request) ->
+                "#Id, #TeamName".equals(request.getProjectionExpression())
+                        && "Id12x4".equals(request.getKey().get("Id").getS())));
+        verify(dbMapper, never()).load(Season.class, "Id12x4");
+    }
+
+    @Test
+    public void saveAndDeleteShouldKeepCacheCurrent() throws Exception {
+        ReflectionTestUtils.setField(repository, "cache", new SeasonCache(100, 60, 5));
+        when(dbMapper.load(Season.class, "Id12x4")).thenReturn(null);
+        assertThat(repository.read("Id12x4"), is(Optional.empty()));
+        Season customer = new Season().withId("Id12x4");
+        repository.save(customer);
+        assertThat(repository.read("Id12x4"), is(Optional.of(customer)));
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class))).thenThrow(new ConditionalCheckFailedException("missing"));
+        repository.delete("Id12x4");
+        assertThat(repository.read("Id12x4"), is(Optional.empty()));
+        verify(dbMapper, times(2)).load(Season.class, "Id12x4");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchReadShouldUseCacheAndLoadTheRestInOrder() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(repository, "batchExecutor", executor);
+        SeasonCache cache = new SeasonCache(100, 60, 5);
+        ReflectionTestUtils.setField(repository, "cache", cache);
+        Season cached = new Season().withId("1d");
+        Season loaded = new Season().withId("2d");
+        cache.put(cached);
+        when(dbMapper.batchLoad(any(List.class))).thenReturn(
+                Collections.singletonMap(Season.TABLE_NAME, Collections.singletonList(loaded)));
+
+        try {
+            List<Season> result = repository.batchRead(Arrays.asList("2d", "1d", "3d", "2d"));
+            assertThat(result, is(Arrays.asList(loaded, cached)));
+            verify(dbMapper).batchLoad(argThat((List<Object> keys) -> keys.size() == 2
+                    && keys.contains(new Season().withId("2d")) && keys.contains(new Season().withId("3d"))));
+            repository.read("2d");
+            verify(dbMapper, never()).load(Season.class, "2d");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void saveShouldPersistCustomer() throws Exception {
         Season customer = new Season().withId("Id12x4");
@@ -81,9 +497,226 @@ public class SeasonRepositoryTest {
         verify(dbMapper).save(customer);
     }
 
+    @Test
+    public void saveIfAbsentShouldSaveWithIdNotExistsCondition() throws Exception {
+        Season season = new Season().withId("Id12x4");
+        boolean result = repository.saveIfAbsent(season);
+        assertThat(result, is(true));
+        verify(dbMapper).save(eq(season), argThat((DynamoDBSaveExpression expression) ->
+                Boolean.FALSE.equals(expression.getExpected().get("Id").getExists())));
+    }
+
+    @Test
+    public void saveIfAbsentShouldReturnFalseWhenConditionFails() throws Exception {
+        Season season = new Season().withId("Id12x4");
+        doThrow(new ConditionalCheckFailedException("exists"))
+                .when(dbMapper).save(eq(season), any(DynamoDBSaveExpression.class));
+        boolean result = repository.saveIfAbsent(season);
+        assertThat(result, is(false));
+    }
+
+    @Test
+    public void updateShouldSetOnlyPresentAttributesInOneCall() throws Exception {
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        Map<String, AttributeValue> stored = new HashMap<>();
+        stored.put("Id", new AttributeValue().withS("Id12x4"));
+        stored.put("Rank", new AttributeValue().withS("2"));
+        stored.put("Streak", new AttributeValue().withS("W3"));
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class))).thenReturn(new UpdateItemResult().withAttributes(stored));
+
+        Season result = repository.update(new Season().withId("Id12x4").withStreak("W3").withVersion(4L)).get();
+
+        assertThat(result, is(equalTo(new Season().withId("Id12x4").withRank("2").withStreak("W3"))));
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "SET #Streak = :Streak, #Version = :Version".equals(request.getUpdateExpression())
+                        && "#Version = :expectedVersion".equals(request.getConditionExpression())
+                        && "4".equals(request.getExpressionAttributeValues().get(":expectedVersion").getN())
+                        && "5".equals(request.getExpressionAttributeValues().get(":Version").getN())
+                        && ReturnValue.ALL_NEW.toString().equals(request.getReturnValues())
+                        && "Id12x4".equals(request.getKey().get("Id").getS())));
+        verify(dbMapper, never()).load(Season.class, "Id12x4");
+    }
+
+    @Test
+    public void updateWithoutAttributesShouldStillCheckTheVersion() throws Exception {
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class))).thenThrow(new ConditionalCheckFailedException("changed")
+                .withItem(Collections.singletonMap("Id", new AttributeValue().withS("Id12x4"))));
+
+        Assertions.assertThrows(VersionConflictException.class,
+                () -> repository.update(new Season().withId("Id12x4").withRank("").withVersion(1L)));
+
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "SET #Version = :Version".equals(request.getUpdateExpression())
+                        && "#Version = :expectedVersion".equals(request.getConditionExpression())
+                        && "1".equals(request.getExpressionAttributeValues().get(":expectedVersion").getN())));
+        verify(dbMapper, never()).load(Season.class, "Id12x4");
+    }
+
+    @Test
+    public void updateShouldReturnEmptyOptionalWhenConditionFails() throws Exception {
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class))).thenThrow(new ConditionalCheckFailedException("missing"));
+        Optional<Season> result = repository.update(new Season().withId("Id12x4").withStreak("W3"));
+        assertThat(result, is(Optional.empty()));
+    }
+
+    @Test
+    public void updateShouldThrowVersionConflictWhenConditionFailsOnStoredItem() throws Exception {
+        ReflectionTestUtils.setField(repository, "cache", new SeasonCache(100, 60, 5));
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        when(dbMapper.load(Season.class, "Id12x4")).thenReturn(new Season().withId("Id12x4").withVersion(1L));
+        repository.read("Id12x4");
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class))).thenThrow(new ConditionalCheckFailedException("changed")
+                .withItem(Collections.singletonMap("Id", new AttributeValue().withS("Id12x4"))));
+
+        Assertions.assertThrows(VersionConflictException.class,
+                () -> repository.update(new Season().withId("Id12x4").withStreak("W3").withVersion(1L)));
+
+        repository.read("Id12x4");
+        verify(dbMapper, times(2)).load(Season.class, "Id12x4");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchSaveShouldWriteInChunksOf25() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(repository, "batchExecutor", executor);
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        when(dbMapper.batchSave(any(List.class))).thenReturn(Collections.emptyList());
+        when(dynamoDB.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(new BatchGetItemResult()
+                .withResponses(Collections.emptyMap()));
+        List<Season> seasons = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            seasons.add(new Season().withId(Integer.toString(i)));
+        }
+
+        try {
+            List<Season> failed = repository.batchSave(seasons);
+            assertThat(failed.isEmpty(), is(true));
+            verify(dbMapper, times(2)).batchSave(argThat((List<Season> chunk) -> chunk.size() == 25));
+            verify(dbMapper).batchSave(argThat((List<Season> chunk) -> chunk.size() == 10));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchSaveShouldRetryFailedBatchesAndReportWhatIsLeft() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(repository, "batchExecutor", executor);
+        ReflectionTestUtils.setField(repository, "batchMaxAttempts", 2);
+        ReflectionTestUtils.setField(repository, "batchBaseBackoffMs", 1L);
+        DynamoDBMapper realMapper = new DynamoDBMapper(dynamoDB);
+        when(dbMapper.getTableModel(Season.class)).thenReturn(realMapper.getTableModel(Season.class));
+        Season season = new Season().withId("1d");
+        DynamoDBMapper.FailedBatch failedBatch = new DynamoDBMapper.FailedBatch();
+        failedBatch.setUnprocessedItems(Collections.singletonMap(Season.TABLE_NAME, Collections.singletonList(
+                new WriteRequest().withPutRequest(new PutRequest()
+                        .withItem(realMapper.getTableModel(Season.class).convert(season))))));
+        when(dbMapper.batchSave(any(List.class))).thenReturn(Collections.singletonList(failedBatch));
+        when(dynamoDB.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(new BatchGetItemResult()
+                .withResponses(Collections.emptyMap()));
+
+        try {
+            List<Season> failed = repository.batchSave(Collections.singletonList(season));
+            assertThat(failed, is(Collections.singletonList(season)));
+            verify(dbMapper, times(2)).batchSave(any(List.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchSaveShouldIncrementTheStoredVersionNotTheOneSent() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(repository, "batchExecutor", executor);
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        when(dbMapper.batchSave(any(List.class))).thenReturn(Collections.emptyList());
+        Map<String, AttributeValue> stored = new HashMap<>();
+        stored.put("Id", new AttributeValue().withS("2012|A"));
+        stored.put("Version", new AttributeValue().withN("7"));
+        when(dynamoDB.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(new BatchGetItemResult()
+                .withResponses(Collections.singletonMap(Season.TABLE_NAME, Collections.singletonList(stored))));
+        Season existing = new Season().withId("2012|A").withVersion(1L);
+        Season added = new Season().withId("2012|B").withVersion(40L);
+
+        try {
+            assertThat(repository.batchSave(Arrays.asList(existing, added)).isEmpty(), is(true));
+            verify(dbMapper).batchSave(argThat((List<Season> chunk) -> chunk.size() == 2
+                    && chunk.get(0).getVersion() == 8L && chunk.get(1).getVersion() == 1L));
+            verify(dynamoDB).batchGetItem(argThat((BatchGetItemRequest request) ->
+                    request.getRequestItems().get(Season.TABLE_NAME).getKeys().size() == 2
+                            && "Id, #Version".equals(request.getRequestItems().get(Season.TABLE_NAME).getProjectionExpression())));
+            assertThat(existing.getVersion(), is(8L));
+            assertThat(added.getVersion(), is(1L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void replaceShouldPutWithIdExistsConditionAndReturnOldItem() throws Exception {
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        Map<String, AttributeValue> old = new HashMap<>();
+        old.put("Id", new AttributeValue().withS("Id12x4"));
+        old.put("Rank", new AttributeValue().withS("2"));
+        when(dynamoDB.putItem(any(PutItemRequest.class))).thenReturn(new PutItemResult().withAttributes(old));
+
+        Season season = new Season().withId("Id12x4").withRank("1");
+        Season result = repository.replace(season).get();
+
+        assertThat(result, is(equalTo(new Season().withId("Id12x4").withRank("2"))));
+        assertThat(season.getVersion(), is(1L));
+        verify(dynamoDB).putItem(argThat((PutItemRequest request) ->
+                "attribute_exists(Id) AND attribute_not_exists(#Version)".equals(request.getConditionExpression())
+                        && request.getExpressionAttributeValues() == null
+                        && ReturnValue.ALL_OLD.toString().equals(request.getReturnValues())
+                        && "1".equals(request.getItem().get("Rank").getS())
+                        && "1".equals(request.getItem().get("Version").getN())));
+        verify(dbMapper, never()).load(Season.class, "Id12x4");
+    }
+
+    @Test
+    public void replaceShouldReturnEmptyOptionalWhenConditionFails() throws Exception {
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        when(dynamoDB.putItem(any(PutItemRequest.class))).thenThrow(new ConditionalCheckFailedException("missing"));
+        Optional<Season> result = repository.replace(new Season().withId("Id12x4"));
+        assertThat(result, is(Optional.empty()));
+    }
+
     @Test
     public void deleteShouldDeleteCustomerByName() throws Exception {
-        repository.delete("1d");
-        verify(dbMapper).delete(eq(new Season().withId("1d")), any(DynamoDBMapperConfig.class));
+        when(dbMapper.getTableModel(Season.class)).thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Season.class));
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class))).thenReturn(new DeleteItemResult()
+                .withAttributes(Collections.singletonMap("Id", new AttributeValue().withS("1d"))));
+        Optional<Season> result = repository.delete("1d");
+        assertThat(result, is(Optional.of(new Season().withId("1d"))));
+        verify(dynamoDB).deleteItem(argThat((DeleteItemRequest request) ->
+                "attribute_exists(Id)".equals(request.getConditionExpression())
+                        && ReturnValue.ALL_OLD.toString().equals(request.getReturnValues())
+                        && "1d".equals(request.getKey().get("Id").getS())));
+    }
+
+    @Test
+    public void deleteShouldReturnEmptyOptionalWhenConditionFails() throws Exception {
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class))).thenThrow(new ConditionalCheckFailedException("missing"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            Optional<Season> result = repository.delete("1d");
+            assertThat(result, is(Optional.empty()));
+            assertThat(registry.get(SeasonMetrics.CONDITIONAL_CHECK_FAILURES).tag("operation", "delete")
+                    .counter().count(), is(1.0));
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    private static DescribeTableResult yearIndex(IndexStatus status) {
+        return new DescribeTableResult().withTable(new TableDescription().withGlobalSecondaryIndexes(
+                new GlobalSecondaryIndexDescription().withIndexName(Season.YEAR_INDEX).withIndexStatus(status)));
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,16 @@
 package com.dmv.footballheadz.season.impl;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.dmv.footballheadz.season.IRepository;
+import com.dmv.footballheadz.season.Page;
+import com.dmv.footballheadz.season.PreconditionFailedException;
+import com.dmv.footballheadz.season.VersionConflictException;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +20,7 @@ import static java.util.Collections.emptyList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.collection.IsEmptyCollection.emptyCollectionOf;
 import static org.mockito.Mockito.*;
@@ -23,7 +29,16 @@ import static org.mockito.Mockito.*;
 public class SeasonServiceTest {
 
     @Mock
-    private SeasonRepository repository;
+    private IRepository<Season> repository;
+
+    @Mock
+    private SeasonEtags etags;
+
+    @Mock
+    private SeasonStandings standings;
+
+    @Mock
+    private TeamAggregates teams;
 
     @InjectMocks
     private SeasonService service;
@@ -45,14 +60,31 @@ public class SeasonServiceTest {
         assertThat(result, is(equalTo(customer)));
     }
 
+    @Test
+    public void batchReadShouldReturnSeasonsFromRepository() throws Exception {
+
+        Season season = new Season().withId("1d");
+        when(repository.batchRead(asList("1d", "2d"))).thenReturn(asList(season));
+        assertThat(service.batchRead(asList("1d", "2d")), contains(season));
+    }
+
+    @Test
+    public void createShouldIgnoreVersionOfNewSeason() throws Exception {
+
+        Season newSeason = new Season().withId("1d").withVersion(7L);
+        when(repository.saveIfAbsent(newSeason)).thenReturn(true);
+        service.create(newSeason);
+        verify(repository).saveIfAbsent(argThat(season -> season.getVersion() == null));
+    }
+
     @Test
     public void createShouldReturnEmptyOptionalWhenSeasonAlreadyExists() throws Exception {
 
-        Season existingSeason = new Season().withId("1d").withTeamName("GimmyDaLoot");
-        when(repository.read("1d")).thenReturn(Optional.of(existingSeason));
         Season newSeason = new Season().withId("1d");
+        when(repository.saveIfAbsent(newSeason)).thenReturn(false);
         Optional<Season> result = service.create(newSeason);
         assertThat(result, is(Optional.empty()));
+        verify(repository, never()).read("1d");
         verify(repository, never()).save(newSeason);
     }
 
@@ -60,17 +92,18 @@ public class SeasonServiceTest {
     public void createShouldReturnNewSeasonWhenSeasonNotYetExists() throws Exception {
 
         Season newSeason = new Season().withId("1d");
-        when(repository.read("1d")).thenReturn(Optional.empty());
+        when(repository.saveIfAbsent(newSeason)).thenReturn(true);
         Season result = service.create(newSeason).get();
         assertThat(result, is(equalTo(newSeason)));
-        verify(repository).save(newSeason);
+        verify(repository).saveIfAbsent(newSeason);
+        verify(repository, never()).read("1d");
     }
 
     @Test
     public void replaceShouldReturnEmptyOptionalWhenSeasonNotFound() throws Exception {
 
         Season newSeasonData = new Season().withId("1d").withTeamName("GimmyDatLoot");
-        when(repository.read("1d")).thenReturn(Optional.empty());
+        when(repository.replace(newSeasonData)).thenReturn(Optional.empty());
         Optional<Season> result = service.replace(newSeasonData);
         assertThat(result, is(Optional.empty()));
         verify(repository, never()).save(newSeasonData);
@@ -79,51 +112,105 @@ public class SeasonServiceTest {
     @Test
     public void replaceShouldOverwriteAndReturnNewDataWhenSeasonExists() throws Exception {
 
-        Season oldSeasonData = new Season().withId("1d").withTeamName("GimmyDatLoot");
+        Season oldSeasonData = new Season().withId("1d").withTeamName("GimmyDatLoot").withVersion(2L);
         Season newSeasonData = new Season().withId("1d").withRank("1");
         when(repository.read("1d")).thenReturn(Optional.of(oldSeasonData));
+        when(repository.replace(newSeasonData)).thenReturn(Optional.of(oldSeasonData));
         Season result = service.replace(newSeasonData).get();
         assertThat(result, is(equalTo(newSeasonData)));
-        verify(repository).save(newSeasonData);
+        assertThat(result.getVersion(), is(2L));
+        verify(repository).replace(newSeasonData);
     }
 
     @Test
-    public void updateShouldReturnEmptyOptionalWhenSeasonNotFound() throws Exception {
+    public void replaceShouldWriteVersionedSeasonWithoutReading() throws Exception {
+
+        Season newSeasonData = new Season().withId("1d").withRank("1").withVersion(2L);
+        when(repository.replace(newSeasonData)).thenReturn(Optional.of(new Season().withId("1d")));
+        assertThat(service.replace(newSeasonData).isPresent(), is(true));
+        verify(repository, never()).read("1d");
+    }
+
+    @Test
+    public void replaceShouldFailPreconditionWhenVersionedSeasonChanged() throws Exception {
+
+        Season newSeasonData = new Season().withId("1d").withRank("1").withVersion(2L);
+        when(repository.replace(newSeasonData)).thenThrow(new VersionConflictException("1d"));
+        Assertions.assertThrows(PreconditionFailedException.class, () -> service.replace(newSeasonData));
+        verify(etags, never()).invalidate("1d");
+    }
+
+    @Test
+    public void replaceShouldFailPreconditionWithoutWritingWhenStoredSeasonDoesNotMatch() throws Exception {
 
         Season newSeasonData = new Season().withId("1d").withRank("1");
-        when(repository.read("1d")).thenReturn(Optional.empty());
-        Optional<Season> result = service.update(newSeasonData);
-        assertThat(result, is(Optional.empty()));
-        verify(repository, never()).save(newSeasonData);
+        when(repository.read("1d")).thenReturn(Optional.of(new Season().withId("1d").withRank("2")));
+        Assertions.assertThrows(PreconditionFailedException.class,
+                () -> service.replace(newSeasonData, stored -> "1".equals(stored.getRank())));
+        verify(repository, never()).replace(any(Season.class));
     }
 
     @Test
-    public void updateShouldOverwriteExistingFieldAndReturnNewDataWhenSeasonExists() throws Exception {
+    public void replaceShouldRetryFromReadWhenConcurrentWriteWins() throws Exception {
 
-        Season oldSeasonData = new Season().withId("1d").withRank("2");
+        ReflectionTestUtils.setField(service, "writeMaxAttempts", 3);
         Season newSeasonData = new Season().withId("1d").withRank("1");
-        when(repository.read("1d")).thenReturn(Optional.of(oldSeasonData));
-        Season result = service.update(newSeasonData).get();
-        assertThat(result, is(equalTo(newSeasonData)));
-        verify(repository).save(newSeasonData);
+        when(repository.read("1d")).thenReturn(
+                Optional.of(new Season().withId("1d").withVersion(1L)),
+                Optional.of(new Season().withId("1d").withVersion(2L)));
+        when(repository.replace(newSeasonData))
+                .thenThrow(new VersionConflictException("1d"))
+                .thenReturn(Optional.of(new Season().withId("1d")));
+
+        Season result = service.replace(newSeasonData).get();
+
+        assertThat(result.getVersion(), is(2L));
+        verify(repository, times(2)).read("1d");
+        verify(etags).invalidate("1d");
+    }
+
+    @Test
+    public void updateShouldGiveUpAfterMaxAttempts() throws Exception {
+
+        ReflectionTestUtils.setField(service, "writeMaxAttempts", 2);
+        Season newSeasonData = new Season().withId("1d").withRank("1");
+        when(repository.read("1d")).thenReturn(Optional.of(new Season().withId("1d").withVersion(1L)));
+        when(repository.update(newSeasonData)).thenThrow(new VersionConflictException("1d"));
+
+        Assertions.assertThrows(VersionConflictException.class, () -> service.update(newSeasonData));
+        verify(repository, times(2)).update(newSeasonData);
     }
 
     @Test
-    public void updateShouldNotOverwriteExistingFieldIfNoNewValuePassedAndShouldReturnNewDataWhenSeasonExists() throws Exception {
+    public void updateShouldReturnEmptyOptionalWhenSeasonNotFound() throws Exception {
+
+        Season newSeasonData = new Season().withId("1d").withRank("1");
+        when(repository.update(newSeasonData)).thenReturn(Optional.empty());
+        Optional<Season> result = service.update(newSeasonData);
+        assertThat(result, is(Optional.empty()));
+        verify(repository, never()).save(newSeasonData);
+        verify(etags, never()).invalidate("1d");
+    }
+
+    @Test
+    public void updateShouldReturnStoredSeasonWhenSeasonExists() throws Exception {
 
-        Season oldSeasonData = new Season().withId("1d").withRank("2");
         Season newSeasonData = new Season().withId("1d").withTeamName("GimmyDatLoot");
-        Season expectedResult = new Season().withId("1d").withRank("2").withTeamName("GimmyDatLoot");
-        when(repository.read("1d")).thenReturn(Optional.of(oldSeasonData));
+        Season storedSeason = new Season().withId("1d").withRank("2").withTeamName("GimmyDatLoot");
+        when(repository.read("1d")).thenReturn(Optional.of(new Season().withId("1d").withRank("2")));
+        when(repository.update(newSeasonData)).thenReturn(Optional.of(storedSeason));
         Season result = service.update(newSeasonData).get();
-        assertThat(result, is(equalTo(expectedResult)));
-        verify(repository).save(expectedResult);
+        assertThat(result, is(equalTo(storedSeason)));
+        verify(repository, never()).save(any(Season.class));
+        verify(etags).invalidate("1d");
+        verify(standings).put(storedSeason);
+        verify(teams).put(storedSeason);
     }
 
     @Test
     public void deleteShouldReturnFalseWhenSeasonNotFound() throws Exception {
 
-        when(repository.read("1d")).thenReturn(Optional.empty());
+        when(repository.delete("1d")).thenReturn(Optional.empty());
         boolean result = service.delete("1d");
         assertThat(result, is(false));
     }
@@ -131,10 +218,26 @@ public class SeasonServiceTest {
     @Test
     public void deleteShouldReturnTrueWhenSeasonDeleted() throws Exception {
 
-        when(repository.read("1d")).thenReturn(Optional.of(new Season().withId("1d")));
+        when(repository.delete("1d")).thenReturn(Optional.of(new Season().withId("1d")));
         boolean result = service.delete("1d");
         assertThat(result, is(true));
         verify(repository).delete("1d");
+        verify(repository, never()).read("1d");
+        verify(etags).invalidate("1d");
+        verify(standings).remove("1d");
+        verify(teams).remove(new Season().withId("1d"));
+    }
+
+    @Test
+    public void batchSaveShouldReturnSeasonsTheRepositoryCouldNotWrite() throws Exception {
+
+        Season season1 = new Season().withId("1d");
+        Season season2 = new Season().withId("2d");
+        when(repository.batchSave(asList(season1, season2))).thenReturn(asList(season2));
+        List<Season> result = service.batchSave(asList(season1, season2));
+        assertThat(result, contains(season2));
+        verify(standings).invalidateAll();
+        verify(teams).putAll(asList(season1));
     }
 
     @Test
@@ -158,7 +261,7 @@ public class SeasonServiceTest {
     @Test
     public void listExpressionShouldReturnEmptyListWhenNothingFound() throws Exception {
 
-        when(repository.readExpression(any(DynamoDBScanExpression.class))).thenReturn(emptyList());
+        when(repository.readByYear("2012")).thenReturn(emptyList());
         List<Season> result = service.listByYear("2012");
         assertThat(result, is(emptyCollectionOf(Season.class)));
     }
@@ -170,10 +273,25 @@ public class SeasonServiceTest {
         Season season1 = new Season().withId("1d").withYear("2012").withTeamName("DaHogPit");
         Season season2 = new Season().withId("2d").withYear("2012").withTeamName("GimmyDaLoot");
 
-        when(repository.readExpression(any(DynamoDBScanExpression.class)))
-                .thenReturn(asList(season1, season2));
+        when(repository.readByYear(year)).thenReturn(asList(season1, season2));
         List<Season> result = service.listByYear(year);
         assertThat(result, containsInAnyOrder(season1, season2));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void listPageShouldReturnPageFromRepository() throws Exception {
+
+        Page<Season> page = new Page<>(asList(new Season().withId("1d")), "token");
+        when(repository.readPage(10, null)).thenReturn(page);
+        assertThat(service.list(10, null), is(page));
+    }
+
+    @Test
+    public void listByYearPageShouldReturnPageOfYear() throws Exception {
+
+        Page<Season> page = new Page<>(asList(new Season().withId("1d")), null);
+        when(repository.readByYearPage("2012", 10, "token")).thenReturn(page);
+        assertThat(service.listByYear("2012", 10, "token"), is(page));
+    }
+
+}
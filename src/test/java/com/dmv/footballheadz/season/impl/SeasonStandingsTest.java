@@ -0,0 +1,132 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.IRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class SeasonStandingsTest {
+
+    @Mock
+    private IRepository<Season> repository;
+
+    private SeasonStandings standings;
+
+    @BeforeEach
+    public void setUp() {
+        standings = new SeasonStandings(repository, 100, 60);
+    }
+
+    @Test
+    public void ofYearShouldOrderByNumericRankThenPctThenPointsFor() throws Exception {
+        Season tenth = new Season().withId("2012|J").withYear("2012").withRank("10");
+        Season second = new Season().withId("2012|B").withYear("2012").withRank("2").withPct(0.5);
+        Season tiedOnPct = new Season().withId("2012|C").withYear("2012").withRank("2").withPct(0.75).withPointsFor(900.0);
+        Season tiedOnPoints = new Season().withId("2012|D").withYear("2012").withRank("2").withPct(0.75).withPointsFor(1200.0);
+        Season unranked = new Season().withId("2012|U").withYear("2012");
+        when(repository.readByYear("2012")).thenReturn(asList(unranked, tenth, second, tiedOnPct, tiedOnPoints));
+
+        assertThat(standings.ofYear("2012"), contains(tiedOnPoints, tiedOnPct, second, tenth, unranked));
+    }
+
+    @Test
+    public void ofYearShouldQueryOnlyOnce() throws Exception {
+        when(repository.readByYear("2012")).thenReturn(asList(new Season().withId("2012|A").withYear("2012")));
+
+        standings.ofYear("2012");
+        standings.ofYear("2012");
+
+        verify(repository, times(1)).readByYear("2012");
+    }
+
+    @Test
+    public void putShouldMoveSeasonToItsNewPosition() throws Exception {
+        Season first = new Season().withId("2012|A").withYear("2012").withRank("1").withVersion(1L);
+        Season second = new Season().withId("2012|B").withYear("2012").withRank("2").withVersion(1L);
+        when(repository.readByYear("2012")).thenReturn(asList(first, second));
+        standings.ofYear("2012");
+
+        Season overtaken = new Season(first).withRank("3").withVersion(2L);
+        Season added = new Season().withId("2012|C").withYear("2012").withRank("1").withVersion(1L);
+        standings.put(overtaken);
+        standings.put(added);
+
+        assertThat(standings.ofYear("2012"), contains(added, second, overtaken));
+        verify(repository, times(1)).readByYear("2012");
+    }
+
+    @Test
+    public void putShouldMoveSeasonBetweenYears() throws Exception {
+        Season season = new Season().withId("2012|A").withYear("2012").withRank("1");
+        when(repository.readByYear("2012")).thenReturn(asList(season));
+        when(repository.readByYear("2013")).thenReturn(asList());
+        standings.ofYear("2012");
+        standings.ofYear("2013");
+
+        Season moved = new Season(season).withYear("2013");
+        standings.put(moved);
+
+        assertThat(standings.ofYear("2012"), is(empty()));
+        assertThat(standings.ofYear("2013"), contains(moved));
+    }
+
+    @Test
+    public void putShouldIgnoreOlderVersionOfSeason() throws Exception {
+        Season season = new Season().withId("2012|A").withYear("2012").withRank("1").withVersion(3L);
+        when(repository.readByYear("2012")).thenReturn(asList(season));
+        standings.ofYear("2012");
+
+        standings.put(new Season(season).withRank("5").withVersion(2L));
+
+        assertThat(standings.ofYear("2012"), contains(season));
+    }
+
+    @Test
+    public void removeShouldTakeSeasonOutOfItsYear() throws Exception {
+        Season season = new Season().withId("2012|A").withYear("2012");
+        when(repository.readByYear("2012")).thenReturn(asList(season));
+        standings.ofYear("2012");
+
+        standings.remove("2012|A");
+
+        assertThat(standings.ofYear("2012"), is(empty()));
+    }
+
+    @Test
+    public void ofYearShouldNotKeepLoadThatOverlappedAWrite() throws Exception {
+        Season season = new Season().withId("2012|A").withYear("2012");
+        when(repository.readByYear("2012")).thenAnswer(invocation -> {
+            standings.remove("2011|Z");
+            return asList(season);
+        });
+
+        List<Season> result = standings.ofYear("2012");
+        standings.ofYear("2012");
+
+        assertThat(result, contains(season));
+        verify(repository, times(2)).readByYear("2012");
+    }
+
+    @Test
+    public void invalidateAllShouldReloadYears() throws Exception {
+        when(repository.readByYear("2012")).thenReturn(asList(new Season().withId("2012|A").withYear("2012")));
+        standings.ofYear("2012");
+
+        standings.invalidateAll();
+        standings.ofYear("2012");
+
+        verify(repository, times(2)).readByYear("2012");
+    }
+}
@@ -7,6 +7,8 @@ import org.mockito.InjectMocks;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(SpringExtension.class)
@@ -122,4 +124,42 @@ public class SeasonValidationTest {
         boolean isValid = seasonValidation.isValidRank(Integer.toString(rank));
         assertFalse(isValid);
     }
+
+    @Test
+    public void testSeasonValidation_LimitInRange(){
+        assertTrue(seasonValidation.isValidLimit(1));
+        assertTrue(seasonValidation.isValidLimit(SeasonUtils.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    public void testSeasonValidation_LimitOutOfRange(){
+        assertFalse(seasonValidation.isValidLimit(0));
+        assertFalse(seasonValidation.isValidLimit(SeasonUtils.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    public void testSeasonValidation_InvalidReasonIsNullForValidSeason(){
+        Season season = new Season().withId("2012|GimmyDaLoot")
+                .withTeamName("GimmyDaLoot")
+                .withYear("2012")
+                .withRank("1");
+        assertNull(seasonValidation.invalidReason(season));
+    }
+
+    @Test
+    public void testSeasonValidation_InvalidReasonForMismatchedId(){
+        Season season = new Season().withId("2012|GimmyDaLoot")
+                .withTeamName("GimmyDaLoot")
+                .withYear("2013");
+        assertNotNull(seasonValidation.invalidReason(season));
+    }
+
+    @Test
+    public void testSeasonValidation_InvalidReasonForRankOutOfRange(){
+        Season season = new Season().withId("2012|GimmyDaLoot")
+                .withTeamName("GimmyDaLoot")
+                .withYear("2012")
+                .withRank("13");
+        assertNotNull(seasonValidation.invalidReason(season));
+    }
 }
@@ -0,0 +1,203 @@
+package com.dmv.footballheadz.season.impl;
+
+import com.dmv.footballheadz.season.IRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+public class TeamAggregatesTest {
+
+    @Mock
+    private IRepository<Season> repository;
+
+    @Mock
+    private ScheduledExecutorService teamsExecutor;
+
+    @InjectMocks
+    private TeamAggregates aggregates;
+
+    @Test
+    public void ofTeamShouldSumAllSeasonsOfTheTeamFromOneScan() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(
+                season("2012|A", "A", "9-3-0", 1200.5, 1000.25),
+                season("2013|A", "A", "7-5-1", 1100.25, 1050.0),
+                season("2012|B", "B", "3-9", 900.0, 1100.0)));
+
+        aggregates.rebuild();
+        TeamTotals totals = aggregates.ofTeam("A").get();
+
+        assertThat(totals.getSeasons(), is(2));
+        assertThat(totals.getRecord(), is("16-8-1"));
+        assertThat(totals.getPointsFor(), is(2300.75));
+        assertThat(totals.getPointsAgainst(), is(2050.25));
+        assertThat(aggregates.ofTeam("B").get().getRecord(), is("3-9-0"));
+        aggregates.leaderboard();
+        verify(repository, times(1)).readAll(TeamAggregates.FIELDS);
+    }
+
+    @Test
+    public void putShouldReplaceWhatTheSeasonContributedBefore() throws Exception {
+        Season season = season("2012|A", "A", "9-3-0", 1200.0, 1000.0).withVersion(1L);
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(season));
+        aggregates.rebuild();
+
+        aggregates.put(new Season(season).withRecord("10-3-0").withPointsFor(1300.1).withVersion(2L));
+
+        TeamTotals totals = aggregates.ofTeam("A").get();
+        assertThat(totals.getSeasons(), is(1));
+        assertThat(totals.getRecord(), is("10-3-0"));
+        assertThat(totals.getPointsFor(), is(1300.1));
+    }
+
+    @Test
+    public void putShouldMoveSeasonToAnotherTeamAndDropEmptyTeams() throws Exception {
+        Season season = season("2012|A", "A", "9-3-0", 1200.0, 1000.0);
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(season));
+        aggregates.rebuild();
+
+        aggregates.put(new Season(season).withTeamName("B"));
+
+        assertThat(aggregates.ofTeam("A"), is(Optional.empty()));
+        assertThat(aggregates.ofTeam("B").get().getWins(), is(9));
+    }
+
+    @Test
+    public void putShouldIgnoreOlderVersionOfSeason() throws Exception {
+        Season season = season("2012|A", "A", "9-3-0", 1200.0, 1000.0).withVersion(3L);
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(season));
+        aggregates.rebuild();
+
+        aggregates.put(new Season(season).withRecord("0-12-0").withVersion(2L));
+
+        assertThat(aggregates.ofTeam("A").get().getWins(), is(9));
+    }
+
+    @Test
+    public void removeShouldSubtractTheSeason() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(
+                season("2012|A", "A", "9-3-0", 1200.0, 1000.0),
+                season("2013|A", "A", "7-5-0", 1100.0, 1050.0)));
+        aggregates.rebuild();
+
+        aggregates.remove(new Season().withId("2012|A"));
+
+        assertThat(aggregates.ofTeam("A").get().getRecord(), is("7-5-0"));
+    }
+
+    @Test
+    public void putFinishingAfterTheDeleteShouldNotCountTheSeasonAgain() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(
+                season("2012|A", "A", "9-3-0", 1200.0, 1000.0).withVersion(3L),
+                season("2013|A", "A", "7-5-0", 1100.0, 1050.0).withVersion(1L)));
+        aggregates.rebuild();
+
+        aggregates.remove(new Season().withId("2012|A").withVersion(3L));
+        aggregates.put(season("2012|A", "A", "10-2-0", 1200.0, 1000.0).withVersion(3L));
+        aggregates.put(season("2012|A", "A", "8-4-0", 1200.0, 1000.0).withVersion(2L));
+
+        assertThat(aggregates.ofTeam("A").get().getRecord(), is("7-5-0"));
+        assertThat(aggregates.ofTeam("A").get().getSeasons(), is(1));
+    }
+
+    @Test
+    public void createAfterTheDeleteShouldCountTheSeasonAgain() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(
+                season("2012|A", "A", "9-3-0", 1200.0, 1000.0).withVersion(3L)));
+        aggregates.rebuild();
+        aggregates.remove(new Season().withId("2012|A").withVersion(3L));
+
+        aggregates.putCreated(season("2012|A", "A", "0-0-0", 0.0, 0.0).withVersion(1L));
+        aggregates.put(season("2012|A", "A", "1-0-0", 110.0, 90.0).withVersion(2L));
+
+        assertThat(aggregates.ofTeam("A").get().getRecord(), is("1-0-0"));
+    }
+
+    @Test
+    public void leaderboardShouldOrderByWinsThenPointsFor() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(
+                season("2012|A", "A", "7-5-0", 1000.0, 1000.0),
+                season("2012|B", "B", "9-3-0", 1000.0, 1000.0),
+                season("2012|C", "C", "7-5-0", 1100.0, 1000.0)));
+        aggregates.rebuild();
+
+        assertThat(aggregates.leaderboard(), contains(
+                aggregates.ofTeam("B").get(), aggregates.ofTeam("C").get(), aggregates.ofTeam("A").get()));
+
+        aggregates.put(season("2013|A", "A", "12-0-0", 1500.0, 900.0));
+        assertThat(aggregates.leaderboard().get(0).getTeamName(), is("A"));
+    }
+
+    @Test
+    public void rebuildShouldReplayWritesMadeDuringTheScan() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenAnswer(invocation -> {
+            aggregates.put(season("2013|A", "A", "7-5-0", 1100.0, 1050.0));
+            return asList(season("2012|A", "A", "9-3-0", 1200.0, 1000.0));
+        });
+
+        assertThat(aggregates.rebuild(), is(1));
+        assertThat(aggregates.ofTeam("A").get().getRecord(), is("16-8-0"));
+    }
+
+    @Test
+    public void readersShouldGetThePreviousTotalsWhileRebuildScans() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(season("2012|A", "A", "9-3-0", 1200.0, 1000.0)));
+        aggregates.rebuild();
+        when(repository.readAll(TeamAggregates.FIELDS)).thenAnswer(invocation -> {
+            assertThat(aggregates.ofTeam("A").get().getWins(), is(9));
+            return asList(season("2012|A", "A", "10-2-0", 1200.0, 1000.0));
+        });
+
+        aggregates.rebuild();
+
+        assertThat(aggregates.ofTeam("A").get().getWins(), is(10));
+    }
+
+    @Test
+    public void nothingShouldBeServedBeforeTheFirstBuild() throws Exception {
+        assertThat(aggregates.isBuilt(), is(false));
+        assertThat(aggregates.ofTeam("A"), is(Optional.empty()));
+        assertThat(aggregates.leaderboard().isEmpty(), is(true));
+        verify(repository, never()).readAll(TeamAggregates.FIELDS);
+    }
+
+    @Test
+    public void scheduleRebuildsShouldRunTheScanOnTheTeamsExecutor() throws Exception {
+        ReflectionTestUtils.setField(aggregates, "maxAgeSeconds", 3600L);
+
+        aggregates.scheduleRebuilds();
+
+        verify(teamsExecutor).scheduleWithFixedDelay(any(Runnable.class), eq(0L), eq(3600L), eq(TimeUnit.SECONDS));
+        verify(repository, never()).readAll(TeamAggregates.FIELDS);
+    }
+
+    @Test
+    public void unparsableRecordShouldCountTheSeasonWithoutGames() throws Exception {
+        when(repository.readAll(TeamAggregates.FIELDS)).thenReturn(asList(season("2012|A", "A", "n/a", 1000.0, null)));
+        aggregates.rebuild();
+
+        TeamTotals totals = aggregates.ofTeam("A").get();
+
+        assertThat(totals.getSeasons(), is(1));
+        assertThat(totals.getRecord(), is("0-0-0"));
+        assertThat(totals.getPointsAgainst(), is(0.0));
+    }
+
+    private static Season season(String id, String teamName, String record, Double pointsFor, Double pointsAgainst) {
+        return new Season().withId(id).withTeamName(teamName).withRecord(record)
+                .withPointsFor(pointsFor).withPointAgainst(pointsAgainst);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTokensTest {
+
+    @Test
+    public void encodeShouldReturnNullForLastPage() throws Exception {
+
+        assertNull(PageTokens.encode(null));
+        assertNull(PageTokens.encode(new HashMap<>()));
+    }
+
+    @Test
+    public void decodeShouldReturnNullForFirstPage() throws Exception {
+
+        assertNull(PageTokens.decode(null));
+        assertNull(PageTokens.decode(""));
+    }
+
+    @Test
+    public void decodeShouldRestoreEncodedKey() throws Exception {
+
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("Id", new AttributeValue().withS("2012|GimmyDaLoot"));
+        key.put("Year", new AttributeValue().withS("2012"));
+        assertEquals(key, PageTokens.decode(PageTokens.encode(key)));
+    }
+
+    @Test
+    public void decodeShouldRejectGarbage() throws Exception {
+
+        assertThrows(IllegalArgumentException.class, () -> PageTokens.decode("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> PageTokens.decode("bnVsbA"));
+    }
+
+    @Test
+    public void decodeShouldRejectTokenOfAnotherListing() throws Exception {
+
+        String token = PageTokens.encode(Collections.singletonMap("Id", new AttributeValue().withS("2012|GimmyDaLoot")));
+        assertEquals(1, PageTokens.decode(token, Collections.singleton("Id")).size());
+        assertThrows(IllegalArgumentException.class, () -> PageTokens.decode(token, new HashSet<>(Arrays.asList("Id", "Year"))));
+    }
+}